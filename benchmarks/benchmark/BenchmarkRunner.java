@@ -0,0 +1,37 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler(allocation rate, bytes per operation, GC count) and writes the
+ * results as JSON, so two runs can be compared with any JMH result viewer or diff tool.
+ *
+ *   java -jar target/benchmarks.jar                                  every benchmark -> jmh-result.json
+ *   java -jar target/benchmarks.jar "BinarySearchTree.*" bst.json    matching benchmarks -> bst.json
+ *
+ * The parameters can be narrowed with the plain JMH launcher:
+ *
+ *   java -cp target/benchmarks.jar org.openjdk.jmh.Main LinkedList -p size=1000 -prof gc -rf json
+ */
+public final class BenchmarkRunner {
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		String include = args.length > 0 ? args[0] : ".*";
+		String result = args.length > 1 ? args[1] : "jmh-result.json";
+		Options options = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result(result)
+				.build();
+		new Runner(options).run();
+	}
+}
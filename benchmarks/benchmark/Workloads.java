@@ -0,0 +1,88 @@
+package benchmark;
+
+import java.util.Random;
+
+/**
+ * Key workloads shared by the benchmarks.
+ *
+ * Every workload holds the keys 0, 2, 4 ... 2(size-1)(the odd keys are free for inserts of absent keys):
+ *
+ *   SORTED:   keys arrive in ascending order, a plain BST degenerates into a linked list
+ *   RANDOM:   keys arrive shuffled, lookups are uniform
+ *   ZIPFIAN:  keys arrive shuffled, lookups are skewed, the i-th hottest key is picked with probability
+ *             proportional to 1/i^0.99(YCSB default), the hot keys are spread over the whole key range
+ *
+ * The generators are seeded, so every run(and every fork) measures the same keys.
+ */
+public final class Workloads {
+
+	public enum Workload {
+		SORTED, RANDOM, ZIPFIAN
+	}
+
+	public static final long SEED = 42;
+	public static final double ZIPFIAN_SKEW = 0.99;
+
+	private Workloads() {
+	}
+
+	/**
+	 * Insert order of the keys of the workload.
+	 *
+	 * @param workload
+	 * @param size
+	 * @return
+	 */
+	public static int[] keys(Workload workload, int size) {
+		int[] keys = new int[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = i * 2;
+		}
+		if (workload != Workload.SORTED) {
+			shuffle(keys, new Random(SEED));
+		}
+		return keys;
+	}
+
+	/**
+	 * Keys to look up(search, delete...) in the keys of the workload.
+	 *
+	 * @param workload
+	 * @param keys keys of the workload
+	 * @param count
+	 * @return
+	 */
+	public static int[] lookups(Workload workload, int[] keys, int count) {
+		Random random = new Random(SEED + 1);
+		int[] lookups = new int[count];
+		if (workload != Workload.ZIPFIAN) {
+			for (int i = 0; i < count; i++) {
+				lookups[i] = keys[random.nextInt(keys.length)];
+			}
+			return lookups;
+		}
+		// the hotness order is shuffled independently of the insert order
+		int[] hotness = keys.clone();
+		shuffle(hotness, random);
+		for (int i = 0; i < count; i++) {
+			lookups[i] = hotness[zipfianRank(keys.length, random.nextDouble())];
+		}
+		return lookups;
+	}
+
+	// rank in [0, n) by inverting the continuous approximation of the Zipfian CDF, no table of n entries
+	private static int zipfianRank(int n, double u) {
+		double exponent = 1 - ZIPFIAN_SKEW;
+		double rank = Math.pow((Math.pow(n, exponent) - 1) * u + 1, 1 / exponent);
+		return Math.min((int) rank - 1, n - 1);
+	}
+
+	public static void shuffle(int[] values, Random random) {
+		for (int i = values.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = values[i];
+			values[i] = values[j];
+			values[j] = swap;
+		}
+	}
+}
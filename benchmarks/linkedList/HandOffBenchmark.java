@@ -0,0 +1,71 @@
+package linkedList;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Producer/consumer hand-off through a shared list, every thread appends a value and takes one from the front,
+ * so the list stays short. Compare the throughput with -t 1, 2, 4, ...:
+ *
+ *   locked:        LinkedList guarded by its monitor(external locking)
+ *   lockFree:      ConcurrentLinkedList append/poll
+ *   lockFreeBatch: ConcurrentLinkedList appendAll/drainTo of 16 values, per value
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class HandOffBenchmark {
+
+	private static final int BATCH = 16;
+
+	private final LinkedList lockedList = new LinkedList();
+	private final ConcurrentLinkedList lockFreeList = new ConcurrentLinkedList();
+
+	@State(Scope.Thread)
+	public static class Batch {
+		final int[] values = new int[BATCH];
+		final int[] drained = new int[BATCH];
+	}
+
+	@Benchmark
+	public int locked() {
+		synchronized (lockedList) {
+			lockedList.append(1);
+			LinkedList.Node first = lockedList.head;
+			lockedList.head = first.next;
+			if (lockedList.head == null) {
+				lockedList.tail = null;
+			}
+			lockedList.size--;
+			return first.data;
+		}
+	}
+
+	@Benchmark
+	public int lockFree() {
+		lockFreeList.append(1);
+		return lockFreeList.poll(0);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int lockFreeBatch(Batch batch) {
+		lockFreeList.appendAll(batch.values);
+		return lockFreeList.drainTo(batch.drained);
+	}
+}
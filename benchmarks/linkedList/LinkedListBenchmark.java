@@ -0,0 +1,111 @@
+package linkedList;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmark.Workloads;
+import benchmark.Workloads.Workload;
+
+/**
+ * LinkedList add/append/delete on a list of size nodes.
+ *
+ * Every benchmark undoes its change, so the list keeps its size during the whole measurement:
+ *
+ *   add:           add(key) then drop the new head
+ *   append:        append(key) then cut the new last node
+ *   deleteAndAdd:  delete(lookup) then add(lookup), a hit costs the scan up to the node,
+ *                  the deleted node moves to the front(move-to-front under the ZIPFIAN workload)
+ *   scan:          sum of all the nodes, compare with UnrolledLinkedListBenchmark.scan
+ *   streamSum:     same sum through stream(), parallelStreamSum through parallelStream()
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class LinkedListBenchmark {
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	int size;
+
+	@Param
+	Workload workload;
+
+	private LinkedList list;
+	private LinkedList.Node lastNode;
+	private int[] lookups;
+	private int next;
+
+	@Setup
+	public void setup() {
+		int[] keys = Workloads.keys(workload, size);
+		list = new LinkedList();
+		// add inserts at the front, go backwards to keep the order of the workload
+		for (int i = keys.length - 1; i >= 0; i--) {
+			list.add(keys[i]);
+		}
+		lastNode = list.tail;
+		lookups = Workloads.lookups(workload, keys, 1 << 16);
+	}
+
+	private int nextLookup() {
+		return lookups[next++ & (lookups.length - 1)];
+	}
+
+	@Benchmark
+	public int add() {
+		list.add(1);
+		LinkedList.Node added = list.head;
+		list.head = added.next;
+		list.size--;
+		return added.data;
+	}
+
+	@Benchmark
+	public int append() {
+		list.append(1);
+		LinkedList.Node appended = lastNode.next;
+		lastNode.next = null;
+		list.tail = lastNode;
+		list.size--;
+		return appended.data;
+	}
+
+	@Benchmark
+	public void deleteAndAdd() {
+		int key = nextLookup();
+		list.delete(key);
+		list.add(key);
+	}
+
+	@Benchmark
+	public long scan() {
+		long sum = 0;
+		for (LinkedList.Node node = list.head; node != null; node = node.next) {
+			sum += node.data;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long streamSum() {
+		return list.stream().asLongStream().sum();
+	}
+
+	@Benchmark
+	public long parallelStreamSum() {
+		return list.parallelStream().asLongStream().sum();
+	}
+}
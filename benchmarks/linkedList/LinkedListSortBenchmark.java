@@ -0,0 +1,74 @@
+package linkedList;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmark.Workloads;
+import benchmark.Workloads.Workload;
+
+/**
+ * Sorting a LinkedList of size values, the list is rebuilt in workload order before every invocation:
+ *
+ *   sort:        in-place merge sort, the nodes are relinked
+ *   copySort:    copy the values into an array, Arrays.sort and write them back into the nodes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class LinkedListSortBenchmark {
+
+	@Param({ "10000", "100000", "1000000", "10000000" })
+	int size;
+
+	@Param
+	Workload workload;
+
+	private int[] keys;
+	private LinkedList list;
+
+	@Setup(Level.Trial)
+	public void setupKeys() {
+		keys = Workloads.keys(workload, size);
+	}
+
+	@Setup(Level.Invocation)
+	public void setupList() {
+		list = new LinkedList();
+		for (int key : keys) {
+			list.append(key);
+		}
+	}
+
+	@Benchmark
+	public LinkedList sort() {
+		list.sort();
+		return list;
+	}
+
+	@Benchmark
+	public LinkedList copySort() {
+		int[] values = list.stream().toArray();
+		Arrays.sort(values);
+		int i = 0;
+		for (LinkedList.Node node = list.head; node != null; node = node.next) {
+			node.data = values[i++];
+		}
+		return list;
+	}
+}
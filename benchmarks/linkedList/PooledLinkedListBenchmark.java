@@ -0,0 +1,80 @@
+package linkedList;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmark.Workloads;
+import benchmark.Workloads.Workload;
+
+/**
+ * PooledLinkedList on a list of size values, same workloads as LinkedListBenchmark. Compare gc.alloc.rate.norm
+ * of deleteAndAdd(GCProfiler): 0 bytes per operation here, a Node per operation in LinkedListBenchmark:
+ *
+ *   deleteAndAdd:  delete(lookup) then add(lookup)
+ *   churnAtHead:   add(-1) then delete(-1), the freed slot is taken again by the next add
+ *   scan:          sum of all the values, slot by slot
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class PooledLinkedListBenchmark {
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	int size;
+
+	@Param
+	Workload workload;
+
+	private PooledLinkedList list;
+	private int[] lookups;
+	private int next;
+
+	@Setup
+	public void setup() {
+		int[] keys = Workloads.keys(workload, size);
+		list = new PooledLinkedList();
+		for (int key : keys) {
+			list.append(key);
+		}
+		lookups = Workloads.lookups(workload, keys, 1 << 16);
+	}
+
+	private int nextLookup() {
+		return lookups[next++ & (lookups.length - 1)];
+	}
+
+	@Benchmark
+	public void deleteAndAdd() {
+		int key = nextLookup();
+		list.delete(key);
+		list.add(key);
+	}
+
+	// -1 is never a key of the workload, the delete finds it at the head
+	@Benchmark
+	public void churnAtHead() {
+		list.add(-1);
+		list.delete(-1);
+	}
+
+	@Benchmark
+	public long scan() {
+		long[] sum = new long[1];
+		list.forEach(data -> sum[0] += data);
+		return sum[0];
+	}
+}
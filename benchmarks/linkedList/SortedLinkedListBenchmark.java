@@ -0,0 +1,103 @@
+package linkedList;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmark.Workloads;
+import benchmark.Workloads.Workload;
+
+/**
+ * SortedLinkedList and ConcurrentSortedLinkedList on a list of size values, same workloads as
+ * LinkedListBenchmark(compare deleteAndInsert with LinkedListBenchmark.deleteAndAdd):
+ *
+ *   contains:         contains(lookup), a hit
+ *   deleteAndInsert:  delete(lookup) then insert(lookup), the list keeps its size
+ *   insertAllDeleteAll: size inserts into an empty list, then a delete of each(the lanes grow and shrink
+ *                     again), single shot
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class SortedLinkedListBenchmark {
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	int size;
+
+	@Param
+	Workload workload;
+
+	private SortedLinkedList list;
+	private ConcurrentSortedLinkedList concurrentList;
+	private int[] keys;
+	private int[] lookups;
+	private int next;
+
+	@Setup
+	public void setup() {
+		keys = Workloads.keys(workload, size);
+		list = new SortedLinkedList();
+		concurrentList = new ConcurrentSortedLinkedList();
+		for (int key : keys) {
+			list.insert(key);
+			concurrentList.insert(key);
+		}
+		lookups = Workloads.lookups(workload, keys, 1 << 16);
+	}
+
+	private int nextLookup() {
+		return lookups[next++ & (lookups.length - 1)];
+	}
+
+	@Benchmark
+	public boolean contains() {
+		return list.contains(nextLookup());
+	}
+
+	@Benchmark
+	public void deleteAndInsert() {
+		int key = nextLookup();
+		list.delete(key);
+		list.insert(key);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public int insertAllDeleteAll() {
+		SortedLinkedList fresh = new SortedLinkedList();
+		for (int key : keys) {
+			fresh.insert(key);
+		}
+		int lanes = fresh.lanes;
+		for (int key : keys) {
+			fresh.delete(key);
+		}
+		return lanes + fresh.size();
+	}
+
+	@Benchmark
+	public boolean concurrentContains() {
+		return concurrentList.contains(nextLookup());
+	}
+
+	@Benchmark
+	public void concurrentDeleteAndInsert() {
+		int key = nextLookup();
+		concurrentList.delete(key);
+		concurrentList.insert(key);
+	}
+}
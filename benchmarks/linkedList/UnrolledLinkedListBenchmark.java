@@ -0,0 +1,76 @@
+package linkedList;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmark.Workloads;
+import benchmark.Workloads.Workload;
+
+/**
+ * UnrolledLinkedList on a list of size values, same workloads as LinkedListBenchmark:
+ *
+ *   deleteAndAdd:  delete(lookup) then add(lookup)
+ *   scan:          sum of all the values, chunk by chunk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class UnrolledLinkedListBenchmark {
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	int size;
+
+	@Param
+	Workload workload;
+
+	private UnrolledLinkedList list;
+	private int[] lookups;
+	private int next;
+
+	@Setup
+	public void setup() {
+		int[] keys = Workloads.keys(workload, size);
+		list = new UnrolledLinkedList();
+		for (int key : keys) {
+			list.append(key);
+		}
+		lookups = Workloads.lookups(workload, keys, 1 << 16);
+	}
+
+	private int nextLookup() {
+		return lookups[next++ & (lookups.length - 1)];
+	}
+
+	@Benchmark
+	public void deleteAndAdd() {
+		int key = nextLookup();
+		list.delete(key);
+		list.add(key);
+	}
+
+	@Benchmark
+	public long scan() {
+		long sum = 0;
+		for (UnrolledLinkedList.Node node = list.head; node != null; node = node.next) {
+			int[] values = node.values;
+			for (int i = 0; i < node.count; i++) {
+				sum += values[i];
+			}
+		}
+		return sum;
+	}
+}
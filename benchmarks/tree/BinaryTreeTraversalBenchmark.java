@@ -0,0 +1,123 @@
+package tree;
+
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import benchmark.Workloads;
+import benchmark.Workloads.Workload;
+
+/**
+ * Full traversals of a BinaryTree of size keys inserted in the order of the workload, SORTED gives a right
+ * leaning chain, RANDOM and ZIPFIAN a random tree(the lookup skew plays no role in a full traversal).
+ *
+ * The IntConsumer variants measure the walk itself(array stack, or Morris threading for the *Morris ones),
+ * the List variants add the boxing and the list growth(see the gc.alloc.rate.norm of the GC profiler).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class BinaryTreeTraversalBenchmark {
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	int size;
+
+	@Param
+	Workload workload;
+
+	private BinaryTree tree;
+
+	@Setup
+	public void setup() {
+		int[] keys = Workloads.keys(workload, size);
+		tree = new BinaryTree();
+		if (workload == Workload.SORTED) {
+			// the chain add would build, without the O(n^2) recursive inserts
+			BinaryTree.TreeNode lastNode = null;
+			for (int i = keys.length - 1; i >= 0; i--) {
+				BinaryTree.TreeNode node = tree.new TreeNode(keys[i]);
+				node.right = lastNode;
+				lastNode = node;
+			}
+			tree.root = lastNode;
+		} else {
+			for (int key : keys) {
+				tree.add(key);
+			}
+		}
+	}
+
+	@Benchmark
+	public void inOrderTraversal(Blackhole blackhole) {
+		tree.inOrderTraversal(tree.root, blackhole::consume);
+	}
+
+	@Benchmark
+	public void preOrderTraversal(Blackhole blackhole) {
+		tree.preOrderTraversal(tree.root, blackhole::consume);
+	}
+
+	@Benchmark
+	public void postOrderTraversal(Blackhole blackhole) {
+		tree.postOrderTraversal(tree.root, blackhole::consume);
+	}
+
+	@Benchmark
+	public void inOrderTraversalMorris(Blackhole blackhole) {
+		tree.inOrderTraversalMorris(tree.root, blackhole::consume);
+	}
+
+	@Benchmark
+	public void preOrderTraversalMorris(Blackhole blackhole) {
+		tree.preOrderTraversalMorris(tree.root, blackhole::consume);
+	}
+
+	@Benchmark
+	public void postOrderTraversalMorris(Blackhole blackhole) {
+		tree.postOrderTraversalMorris(tree.root, blackhole::consume);
+	}
+
+	@Benchmark
+	public long inOrderIterator() {
+		long sum = 0;
+		for (PrimitiveIterator.OfInt iterator = tree.inOrderIterator(tree.root); iterator.hasNext();) {
+			sum += iterator.nextInt();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public int inOrderTraversalList() {
+		return tree.inOrderTraversal(tree.root).size();
+	}
+
+	@Benchmark
+	public int preOrderTraversalList() {
+		return tree.preOrderTraversal(tree.root).size();
+	}
+
+	@Benchmark
+	public int postOrderTraversalList() {
+		return tree.postOrderTraversal(tree.root).size();
+	}
+
+	@Benchmark
+	public long parallelSum() {
+		return tree.parallelSum(tree.root);
+	}
+}
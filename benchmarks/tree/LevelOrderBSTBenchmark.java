@@ -0,0 +1,103 @@
+package tree;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import benchmark.Workloads;
+import benchmark.Workloads.Workload;
+
+/**
+ * Level order traversal of a LevelOrderBST: queue of nodes vs ring buffer(LevelOrderEngine).
+ *
+ * The tree is the BST of size keys inserted in the order of the workload, SORTED gives a chain(one node per
+ * level), RANDOM and ZIPFIAN a random tree with wide levels.
+ *
+ * The recursive traversal(traverseLevelOrder) is left out, it walks the tree once per level, O(n * height).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class LevelOrderBSTBenchmark {
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	int size;
+
+	@Param
+	Workload workload;
+
+	private LevelOrderBST tree;
+
+	@Setup
+	public void setup() {
+		int[] keys = Workloads.keys(workload, size);
+		tree = new LevelOrderBST();
+		if (workload == Workload.SORTED) {
+			LevelOrderBST.TreeNode lastNode = null;
+			for (int i = keys.length - 1; i >= 0; i--) {
+				LevelOrderBST.TreeNode node = new LevelOrderBST.TreeNode(keys[i]);
+				node.right = lastNode;
+				lastNode = node;
+			}
+			tree.root = lastNode;
+			return;
+		}
+		for (int key : keys) {
+			insert(key);
+		}
+	}
+
+	// LevelOrderBST has no insert of its own, plain iterative BST insert
+	private void insert(int key) {
+		LevelOrderBST.TreeNode newNode = new LevelOrderBST.TreeNode(key);
+		if (tree.root == null) {
+			tree.root = newNode;
+			return;
+		}
+		LevelOrderBST.TreeNode currentNode = tree.root;
+		while (true) {
+			if (key < currentNode.data) {
+				if (currentNode.left == null) {
+					currentNode.left = newNode;
+					return;
+				}
+				currentNode = currentNode.left;
+			} else {
+				if (currentNode.right == null) {
+					currentNode.right = newNode;
+					return;
+				}
+				currentNode = currentNode.right;
+			}
+		}
+	}
+
+	@Benchmark
+	public int levelOrderTraversalUsingQueue() {
+		return tree.levelOrderTraversalUsingQueue(tree.root).size();
+	}
+
+	@Benchmark
+	public int levelOrderTraversalUsingRingBuffer() {
+		return tree.levelOrderTraversalUsingRingBuffer(tree.root).size();
+	}
+
+	@Benchmark
+	public int traverseLevels(Blackhole blackhole) {
+		return tree.traverseLevels(tree.root, (level, values, count) -> blackhole.consume(values));
+	}
+}
@@ -0,0 +1,152 @@
+package tree.bst;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmark.Workloads;
+import benchmark.Workloads.Workload;
+
+/**
+ * BinarySearchTree add/search/delete, iterative, on a tree of size keys inserted in the order of the
+ * workload(SORTED builds a degenerate tree, every operation walks O(n) nodes).
+ *
+ * add is measured together with the delete of the same absent(odd) key and delete together with the re-insert
+ * of the deleted key, so the tree keeps its size during the whole measurement(a re-inserted key comes back
+ * as a leaf, the shape drifts slowly).
+ *
+ * deleteIterativeTwoDescents is the baseline of deleteIterative: the delete before it found the successor in the
+ * same descent(see twoDescentDelete).
+ *
+ * The recursive operations recurse as deep as the tree, they are in BinarySearchTreeRecursiveBenchmark with
+ * the degenerate trees kept small enough for the default thread stack.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class BinarySearchTreeBenchmark {
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	int size;
+
+	@Param
+	Workload workload;
+
+	private BinarySearchTree bst;
+	private int[] lookups;
+	private int next;
+
+	@Setup
+	public void setup() {
+		int[] keys = Workloads.keys(workload, size);
+		bst = build(workload, keys);
+		lookups = Workloads.lookups(workload, keys, 1 << 16);
+	}
+
+	// tree of the keys in insert order, shared with BinarySearchTreeRecursiveBenchmark
+	static BinarySearchTree build(Workload workload, int[] keys) {
+		BinarySearchTree bst = new BinarySearchTree();
+		if (workload == Workload.SORTED) {
+			// the same right leaning chain addIterative would build, without the O(n^2) inserts
+			BinarySearchTree.TreeNode lastNode = null;
+			for (int i = keys.length - 1; i >= 0; i--) {
+				BinarySearchTree.TreeNode node = bst.new TreeNode(keys[i]);
+				node.right = lastNode;
+				node.size = keys.length - i;
+				node.height = keys.length - i;
+				lastNode = node;
+			}
+			bst.root = lastNode;
+		} else {
+			for (int key : keys) {
+				bst.addIterative(key);
+			}
+		}
+		return bst;
+	}
+
+	private int nextLookup() {
+		return lookups[next++ & (lookups.length - 1)];
+	}
+
+	@Benchmark
+	public boolean searchIterative() {
+		return bst.searchIterative(bst.root, nextLookup()) != null;
+	}
+
+	@Benchmark
+	public void addIterative() {
+		int key = nextLookup() + 1;
+		bst.addIterative(key);
+		bst.root = bst.deleteNodeIterative(bst.root, key);
+	}
+
+	@Benchmark
+	public void deleteIterative() {
+		int key = nextLookup();
+		bst.root = bst.deleteNodeIterative(bst.root, key);
+		bst.addIterative(key);
+	}
+
+	@Benchmark
+	public void deleteIterativeTwoDescents() {
+		int key = nextLookup();
+		bst.root = twoDescentDelete(bst.root, key);
+		bst.addIterative(key);
+	}
+
+	/**
+	 * The former deleteNodeIterative: the sizes are decremented on the way down(and restored by a second walk
+	 * when the key is missing), a node with both child looks up its successor and then deletes it with a
+	 * second delete descent of the right subtree.
+	 */
+	static BinarySearchTree.TreeNode twoDescentDelete(BinarySearchTree.TreeNode root, int deleteData) {
+		BinarySearchTree.TreeNode currentNode = root;
+		BinarySearchTree.TreeNode parentNode = null;
+		while (currentNode != null && currentNode.value != deleteData) {
+			currentNode.size--;
+			parentNode = currentNode;
+			currentNode = deleteData < currentNode.value ? currentNode.left : currentNode.right;
+		}
+		if (currentNode == null) {
+			for (BinarySearchTree.TreeNode node = root; node != null; node = deleteData < node.value ? node.left : node.right) {
+				node.size++;
+			}
+			return root;
+		}
+		if (currentNode.left != null && currentNode.right != null) {
+			BinarySearchTree.TreeNode minNode = currentNode.right;
+			while (minNode.left != null) {
+				minNode = minNode.left;
+			}
+			int minNodeData = minNode.value;
+			currentNode.right = twoDescentDelete(currentNode.right, minNodeData);
+			currentNode.value = minNodeData;
+			currentNode.size--;
+			return root;
+		}
+		BinarySearchTree.TreeNode childNode = currentNode.left != null ? currentNode.left : currentNode.right;
+		if (parentNode == null) {
+			return childNode;
+		}
+		if (parentNode.left == currentNode) {
+			parentNode.left = childNode;
+		} else {
+			parentNode.right = childNode;
+		}
+		return root;
+	}
+}
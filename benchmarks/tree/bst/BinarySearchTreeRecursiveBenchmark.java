@@ -0,0 +1,121 @@
+package tree.bst;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmark.Workloads;
+import benchmark.Workloads.Workload;
+
+/**
+ * BinarySearchTree add/search/delete, recursive, same operations as BinarySearchTreeBenchmark.
+ *
+ * The recursion goes as deep as the tree. RANDOM and ZIPFIAN trees are O(log n) deep and run at every size
+ * (RandomTree). A SORTED tree is a chain as deep as its size, it only runs at sizes the default thread stack
+ * holds(SortedTree), compare them with the iterative results of the same size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BinarySearchTreeRecursiveBenchmark {
+
+	abstract static class Tree {
+		BinarySearchTree bst;
+		private int[] lookups;
+		private int next;
+
+		void build(Workload workload, int size) {
+			int[] keys = Workloads.keys(workload, size);
+			bst = BinarySearchTreeBenchmark.build(workload, keys);
+			lookups = Workloads.lookups(workload, keys, 1 << 16);
+		}
+
+		int nextLookup() {
+			return lookups[next++ & (lookups.length - 1)];
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class RandomTree extends Tree {
+		@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+		int size;
+
+		@Param({ "RANDOM", "ZIPFIAN" })
+		Workload workload;
+
+		@Setup
+		public void setup() {
+			build(workload, size);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class SortedTree extends Tree {
+		// a chain of 10000 nodes already overflows the default stack of the interpreted recursion
+		@Param({ "100", "1000" })
+		int size;
+
+		@Setup
+		public void setup() {
+			build(Workload.SORTED, size);
+		}
+	}
+
+	private static boolean search(Tree tree) {
+		return tree.bst.searchRecursive(tree.bst.root, tree.nextLookup()) != null;
+	}
+
+	private static void add(Tree tree) {
+		int key = tree.nextLookup() + 1;
+		tree.bst.add(key);
+		tree.bst.root = tree.bst.deleteNodeRecursive(tree.bst.root, key);
+	}
+
+	private static void delete(Tree tree) {
+		int key = tree.nextLookup();
+		tree.bst.root = tree.bst.deleteNodeRecursive(tree.bst.root, key);
+		tree.bst.add(key);
+	}
+
+	@Benchmark
+	public boolean searchRecursive(RandomTree tree) {
+		return search(tree);
+	}
+
+	@Benchmark
+	public void addRecursive(RandomTree tree) {
+		add(tree);
+	}
+
+	@Benchmark
+	public void deleteRecursive(RandomTree tree) {
+		delete(tree);
+	}
+
+	@Benchmark
+	public boolean searchRecursiveSorted(SortedTree tree) {
+		return search(tree);
+	}
+
+	@Benchmark
+	public void addRecursiveSorted(SortedTree tree) {
+		add(tree);
+	}
+
+	@Benchmark
+	public void deleteRecursiveSorted(SortedTree tree) {
+		delete(tree);
+	}
+}
@@ -0,0 +1,68 @@
+package tree.bst;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmark.Workloads;
+import benchmark.Workloads.Workload;
+
+/**
+ * searchIterative of a plain BinarySearchTree against SplayTree and semi-splay trees, on a tree of size keys
+ * inserted in random order(the plain BST stays reasonably balanced).
+ *
+ * splayDepthThreshold -1 measures the plain BinarySearchTree, 0 a SplayTree splaying every hit, greater values
+ * semi-splay trees. ZIPFIAN lookups keep a few hot keys near the root of the splay trees, RANDOM lookups show
+ * the cost of the rotations when there is nothing to gain.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class SplayTreeBenchmark {
+
+	@Param({ "1000", "100000", "1000000" })
+	int size;
+
+	@Param({ "ZIPFIAN", "RANDOM" })
+	Workload workload;
+
+	@Param({ "-1", "0", "8", "16" })
+	int splayDepthThreshold;
+
+	private BinarySearchTree tree;
+	private int[] lookups;
+	private int next;
+
+	@Setup
+	public void setup() {
+		// the keys arrive shuffled for both workloads, only the lookups differ
+		int[] keys = Workloads.keys(Workload.RANDOM, size);
+		tree = splayDepthThreshold < 0 ? new BinarySearchTree() : new SplayTree(splayDepthThreshold);
+		for (int key : keys) {
+			tree.addIterative(key);
+		}
+		lookups = Workloads.lookups(workload, keys, 1 << 20);
+	}
+
+	private int nextLookup() {
+		return lookups[next++ & (lookups.length - 1)];
+	}
+
+	@Benchmark
+	public boolean searchIterative() {
+		return tree.searchIterative(tree.root, nextLookup()) != null;
+	}
+}
@@ -0,0 +1,339 @@
+package linkedList;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe LinkedList used as a FIFO queue: append at the end, poll from the front(Michael-Scott lock-free queue).
+ *
+ * Same node shape as LinkedList(data -> next). head always points to a dummy node, the values start at head.next:
+ *
+ *    head                         tail
+ *     |                            |
+ *    \./                          \./
+ *   dummy -> data1 -> data2 -> data3 -> null
+ *
+ * - append links the new node with a CAS on tail.next(null -> newNode), then swings tail with a CAS on tail.
+ *   tail may lag one node behind for a moment, whoever sees tail.next != null first moves it forward.
+ * - poll reads head.next and moves head to it with a CAS on head, the polled node becomes the new dummy.
+ * - appendAll links a whole chain with a single CAS, drainTo takes up to n nodes with a single CAS on head.
+ * - the retired dummy nodes link to themselves(like ConcurrentLinkedQueue), a thread stalled on an old node
+ *   does not keep the polled chain and the rest of the queue reachable:
+ *
+ *       +------+        head
+ *       |      |         |
+ *      \./     |        \./
+ *     dummy0 --+       data1 -> data2 -> null      after poll() = data1, data1 is the new dummy
+ *
+ *   A thread which reads a self-linked next is behind head, it starts over from head.
+ *
+ * No thread ever waits on another one: a CAS only fails because another thread made progress. Producers
+ * only touch the tail and consumers only the head, so they do not contend with each other unless the queue is empty.
+ *
+ * @author Prashant Singh
+ *
+ */
+public class ConcurrentLinkedList {
+
+	static final class Node {
+		final int data;
+		volatile Node next;
+
+		Node(int data) {
+			this.data = data;
+		}
+	}
+
+	private static final VarHandle HEAD;
+	private static final VarHandle TAIL;
+	private static final VarHandle NEXT;
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			HEAD = lookup.findVarHandle(ConcurrentLinkedList.class, "head", Node.class);
+			TAIL = lookup.findVarHandle(ConcurrentLinkedList.class, "tail", Node.class);
+			NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private volatile Node head;
+	private volatile Node tail;
+
+	public ConcurrentLinkedList() {
+		head = tail = new Node(0);
+	}
+
+	/**
+	 * Insert the data at the end, safe from any number of producers.
+	 *
+	 * @param data
+	 */
+	public void append(int data) {
+		Node newNode = new Node(data);
+		linkLast(newNode, newNode);
+	}
+
+	/**
+	 * Insert all the values at the end, in order and without values of other producers in between.
+	 * The chain is built privately first and then linked with a single CAS.
+	 *
+	 * @param values
+	 */
+	public void appendAll(int[] values) {
+		if (values.length == 0) {
+			return;
+		}
+		Node first = new Node(values[0]);
+		Node last = first;
+		for (int i = 1; i < values.length; i++) {
+			Node newNode = new Node(values[i]);
+			last.next = newNode;
+			last = newNode;
+		}
+		linkLast(first, last);
+	}
+
+	// link the chain first -> ... -> last behind the lastNode
+	private void linkLast(Node first, Node last) {
+		while (true) {
+			// Step-1: Read tail and its next
+			Node lastNode = tail;
+			Node next = lastNode.next;
+			if (next == lastNode) {
+				// tail fell behind head(a drain moved head past it) and was retired, restart from head
+				TAIL.compareAndSet(this, lastNode, head);
+				continue;
+			}
+			if (next != null) {
+				// Step-2: tail is lagging behind, help to move it forward and retry
+				TAIL.compareAndSet(this, lastNode, next);
+				continue;
+			}
+			// Step-3: Link the chain, only one producer can turn the null next of the lastNode
+			if (NEXT.compareAndSet(lastNode, null, first)) {
+				// Step-4: Swing tail, if it fails someone else already moved it
+				TAIL.compareAndSet(this, lastNode, last);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Remove the value at the front, safe from any number of consumers.
+	 *
+	 * @return the value, empty if there is nothing to poll
+	 */
+	public OptionalInt poll() {
+		Node first = pollNode();
+		return first != null ? OptionalInt.of(first.data) : OptionalInt.empty();
+	}
+
+	/**
+	 * Remove the value at the front without allocating. valueIfEmpty can't be told apart from the same value
+	 * polled from the queue, only use it with a value which is never appended(poll() or drainTo otherwise).
+	 *
+	 * @param valueIfEmpty returned when there is nothing to poll
+	 * @return
+	 */
+	public int poll(int valueIfEmpty) {
+		Node first = pollNode();
+		return first != null ? first.data : valueIfEmpty;
+	}
+
+	// move head to the first node and return it(the new dummy node holds the polled value), null if empty
+	private Node pollNode() {
+		while (true) {
+			// Step-1: Read the dummy node and the first node
+			Node dummy = head;
+			Node first = dummy.next;
+			if (first == null) {
+				return null;
+			}
+			if (first == dummy) {
+				// the dummy node was retired after we read head
+				continue;
+			}
+			// Step-2: Keep tail from pointing to a polled node
+			Node lastNode = tail;
+			if (lastNode == dummy) {
+				TAIL.compareAndSet(this, lastNode, first);
+			}
+			// Step-3: first becomes the new dummy node, its data is ours if we won the CAS
+			if (HEAD.compareAndSet(this, dummy, first)) {
+				// Step-4: Retire the old dummy node
+				NEXT.setRelease(dummy, dummy);
+				return first;
+			}
+		}
+	}
+
+	/**
+	 * Remove up to target.length values from the front with a single CAS on head.
+	 *
+	 *    head                      new head
+	 *     |                           |
+	 *    \./                         \./
+	 *   dummy -> data1 -> data2 -> data3 -> data4 -> null        drainTo(int[3]) = 3 [data1, data2, data3]
+	 *
+	 * @param target
+	 * @return number of values written to target, from index 0
+	 */
+	public int drainTo(int[] target) {
+		retry:
+		while (true) {
+			// Step-1: Copy the values after the dummy node
+			Node dummy = head;
+			Node lastNode = dummy;
+			int count = 0;
+			while (count < target.length) {
+				Node next = lastNode.next;
+				if (next == null) {
+					break;
+				}
+				if (next == lastNode) {
+					// another consumer retired the nodes we are copying
+					continue retry;
+				}
+				target[count++] = next.data;
+				lastNode = next;
+			}
+			if (count == 0) {
+				return 0;
+			}
+			// Step-2: Keep tail from pointing to a drained node
+			Node tailNode = tail;
+			if (tailNode != lastNode && isBetween(dummy, tailNode, lastNode)) {
+				TAIL.compareAndSet(this, tailNode, lastNode);
+			}
+			// Step-3: The last copied node becomes the new dummy node, retry if another consumer was faster
+			if (HEAD.compareAndSet(this, dummy, lastNode)) {
+				// Step-4: Retire the old dummy node and the drained nodes before the new one
+				for (Node node = dummy; node != lastNode;) {
+					Node next = node.next;
+					NEXT.setRelease(node, node);
+					node = next;
+				}
+				return count;
+			}
+		}
+	}
+
+	// true if node is one of from -> ... -> to, false if the nodes were retired meanwhile
+	private static boolean isBetween(Node from, Node node, Node to) {
+		for (Node current = from; current != to; current = current.next) {
+			if (current == node) {
+				return true;
+			}
+			if (current.next == current) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	public boolean isEmpty() {
+		while (true) {
+			Node dummy = head;
+			Node first = dummy.next;
+			// a self-linked dummy node was retired after we read head, read it again
+			if (first != dummy) {
+				return first == null;
+			}
+		}
+	}
+
+	/**
+	 * Number of values, it walks the whole list and is only exact while no other thread is changing it.
+	 * A retired(self-linked) node continues the walk at head.
+	 *
+	 * @return
+	 */
+	public int size() {
+		int size = 0;
+		Node node = head;
+		while (true) {
+			Node next = node.next;
+			if (next == null) {
+				return size;
+			}
+			if (next == node) {
+				node = head;
+				continue;
+			}
+			size++;
+			node = next;
+		}
+	}
+
+	// runner
+	public static void main(String[] args) throws InterruptedException {
+		ConcurrentLinkedList list = new ConcurrentLinkedList();
+		int producers = 4;
+		int valuesPerProducer = 1_000_000;
+
+		// every producer appends its values, in batches of 16 every other time, two consumers poll and drain
+		Thread[] workers = new Thread[producers + 2];
+		for (int p = 0; p < producers; p++) {
+			workers[p] = new Thread(() -> {
+				int[] batch = new int[16];
+				for (int data = 1; data <= valuesPerProducer;) {
+					if ((data & 16) == 0 && data + batch.length <= valuesPerProducer) {
+						for (int i = 0; i < batch.length; i++) {
+							batch[i] = data++;
+						}
+						list.appendAll(batch);
+					} else {
+						list.append(data++);
+					}
+				}
+			});
+		}
+		AtomicLong remaining = new AtomicLong((long) producers * valuesPerProducer);
+		long[] polled = new long[2];
+		long[] sums = new long[2];
+		for (int c = 0; c < 2; c++) {
+			int consumer = c;
+			workers[producers + c] = new Thread(() -> {
+				int[] buffer = new int[64];
+				while (remaining.get() > 0) {
+					if (consumer == 0) {
+						OptionalInt data = list.poll();
+						if (data.isPresent()) {
+							polled[consumer]++;
+							sums[consumer] += data.getAsInt();
+							remaining.decrementAndGet();
+						}
+					} else {
+						int count = list.drainTo(buffer);
+						for (int i = 0; i < count; i++) {
+							sums[consumer] += buffer[i];
+						}
+						polled[consumer] += count;
+						remaining.addAndGet(-count);
+					}
+				}
+			});
+		}
+		long start = System.nanoTime();
+		for (Thread worker : workers) {
+			worker.start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		long elapsed = System.nanoTime() - start;
+		long sum = sums[0] + sums[1];
+		long expectedSum = producers * ((long) valuesPerProducer * (valuesPerProducer + 1) / 2);
+		System.out.println("polled: " + polled[0] + " drained: " + polled[1] + " sum: " + sum + " expected: " + expectedSum
+				+ " in " + elapsed / 1_000_000 + " ms");
+		// every value must come out exactly once
+		if (polled[0] + polled[1] != (long) producers * valuesPerProducer || sum != expectedSum || !list.isEmpty()) {
+			throw new IllegalStateException("lost or duplicated values: polled " + (polled[0] + polled[1]) + ", sum "
+					+ sum + ", expected " + expectedSum + ", empty " + list.isEmpty());
+		}
+	}
+}
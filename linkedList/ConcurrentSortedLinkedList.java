@@ -0,0 +1,304 @@
+package linkedList;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread safe sorted LinkedList with skip-list lanes(lazy skip list), set semantics: a value is stored once.
+ *
+ * Every node carries its own lanes in a next array(next[0] is the chain, next[1] lane 1, ...), between a head
+ * and a tail sentinel which have all the lanes:
+ *
+ *   lane 1:  head --------> 15 -------------------> 40 ----------> tail
+ *   chain:   head -> 3 ---> 15 -> 21 -> 27 -> 33 -> 40 -> 51 ----> tail
+ *
+ * - contains never takes a lock, it only follows next pointers. A value is present if its node is fully
+ *   linked(on all its lanes) and not marked as deleted.
+ * - insert locks the predecessors of every lane of the new node(bottom-up), checks that they are not deleted
+ *   and still point to the same successors, then links the node bottom-up and sets it fully linked.
+ * - delete first marks the node under its own lock(logical delete, from now on it is absent), then locks
+ *   and validates the predecessors like insert and unlinks the node top-down(physical delete).
+ * - a failed validation releases the locks and retries from the top.
+ *
+ * @author Prashant Singh
+ *
+ */
+public class ConcurrentSortedLinkedList {
+
+	static final class Node {
+		final int data;
+		// next[lane], read and written through NEXT
+		final Node[] next;
+		final ReentrantLock lock = new ReentrantLock();
+		volatile boolean marked;
+		volatile boolean fullyLinked;
+
+		Node(int data, int lanes) {
+			this.data = data;
+			this.next = new Node[lanes + 1];
+		}
+
+		int topLane() {
+			return next.length - 1;
+		}
+	}
+
+	private static final VarHandle NEXT = MethodHandles.arrayElementVarHandle(Node[].class);
+	private static final int MAX_LANES = 15;
+
+	private final Node head = new Node(0, MAX_LANES);
+	private final Node tail = new Node(0, MAX_LANES);
+	private final LongAdder size = new LongAdder();
+
+	public ConcurrentSortedLinkedList() {
+		for (int lane = 0; lane <= MAX_LANES; lane++) {
+			head.next[lane] = tail;
+		}
+		head.fullyLinked = tail.fullyLinked = true;
+	}
+
+	public int size() {
+		return size.intValue();
+	}
+
+	private static Node next(Node node, int lane) {
+		return (Node) NEXT.getAcquire(node.next, lane);
+	}
+
+	// the sentinels are compared by identity, so every int value can be stored
+	private boolean isBefore(Node node, int data) {
+		return node != tail && node.data < data;
+	}
+
+	/**
+	 * Search the predecessor and successor of data on every lane.
+	 *
+	 * @param data
+	 * @param predecessors last node smaller than data of every lane
+	 * @param successors first node not smaller than data of every lane
+	 * @return highest lane where the successor holds data, -1 if no node holds data
+	 */
+	private int find(int data, Node[] predecessors, Node[] successors) {
+		int foundLane = -1;
+		Node predecessor = head;
+		for (int lane = MAX_LANES; lane >= 0; lane--) {
+			Node currentNode = next(predecessor, lane);
+			while (isBefore(currentNode, data)) {
+				predecessor = currentNode;
+				currentNode = next(predecessor, lane);
+			}
+			if (foundLane == -1 && currentNode != tail && currentNode.data == data) {
+				foundLane = lane;
+			}
+			predecessors[lane] = predecessor;
+			successors[lane] = currentNode;
+		}
+		return foundLane;
+	}
+
+	/**
+	 * Search data without taking any lock.
+	 *
+	 * @param data
+	 * @return true if the data is present
+	 */
+	public boolean contains(int data) {
+		Node predecessor = head;
+		Node currentNode = tail;
+		for (int lane = MAX_LANES; lane >= 0; lane--) {
+			currentNode = next(predecessor, lane);
+			while (isBefore(currentNode, data)) {
+				predecessor = currentNode;
+				currentNode = next(predecessor, lane);
+			}
+		}
+		return currentNode != tail && currentNode.data == data && currentNode.fullyLinked && !currentNode.marked;
+	}
+
+	/**
+	 * Insert data at its position in the sorted order, duplicates are ignored.
+	 *
+	 * @param data
+	 * @return true if the data was inserted
+	 */
+	public boolean insert(int data) {
+		int topLane = randomLanes();
+		Node[] predecessors = new Node[MAX_LANES + 1];
+		Node[] successors = new Node[MAX_LANES + 1];
+		while (true) {
+			// Step-1: Search, a present node which is being linked by another thread is waited for
+			int foundLane = find(data, predecessors, successors);
+			if (foundLane != -1) {
+				Node found = successors[foundLane];
+				if (!found.marked) {
+					while (!found.fullyLinked) {
+						Thread.onSpinWait();
+					}
+					return false;
+				}
+				// it is being deleted, retry until it is unlinked
+				continue;
+			}
+			// Step-2: Lock and validate the predecessors bottom-up
+			int highestLocked = -1;
+			try {
+				boolean valid = true;
+				for (int lane = 0; valid && lane <= topLane; lane++) {
+					Node predecessor = predecessors[lane];
+					Node successor = successors[lane];
+					predecessor.lock.lock();
+					highestLocked = lane;
+					valid = !predecessor.marked && !successor.marked && next(predecessor, lane) == successor;
+				}
+				if (!valid) {
+					continue;
+				}
+				// Step-3: Link the node bottom-up, it is present once it is fully linked
+				Node newNode = new Node(data, topLane);
+				for (int lane = 0; lane <= topLane; lane++) {
+					newNode.next[lane] = successors[lane];
+				}
+				for (int lane = 0; lane <= topLane; lane++) {
+					NEXT.setRelease(predecessors[lane].next, lane, newNode);
+				}
+				newNode.fullyLinked = true;
+				size.increment();
+				return true;
+			} finally {
+				unlock(predecessors, highestLocked);
+			}
+		}
+	}
+
+	/**
+	 * Delete data.
+	 *
+	 * @param data
+	 * @return true if the data was deleted
+	 */
+	public boolean delete(int data) {
+		Node[] predecessors = new Node[MAX_LANES + 1];
+		Node[] successors = new Node[MAX_LANES + 1];
+		Node victim = null;
+		boolean isMarked = false;
+		while (true) {
+			int foundLane = find(data, predecessors, successors);
+			// Step-1: Only a fully linked node found on its top lane can be deleted, then mark it under its lock
+			if (!isMarked) {
+				if (foundLane == -1) {
+					return false;
+				}
+				victim = successors[foundLane];
+				if (!victim.fullyLinked || victim.topLane() != foundLane || victim.marked) {
+					return false;
+				}
+				victim.lock.lock();
+				if (victim.marked) {
+					victim.lock.unlock();
+					return false;
+				}
+				victim.marked = true;
+				isMarked = true;
+			}
+			// Step-2: Lock and validate the predecessors bottom-up
+			int topLane = victim.topLane();
+			int highestLocked = -1;
+			try {
+				boolean valid = true;
+				for (int lane = 0; valid && lane <= topLane; lane++) {
+					Node predecessor = predecessors[lane];
+					predecessor.lock.lock();
+					highestLocked = lane;
+					valid = !predecessor.marked && next(predecessor, lane) == victim;
+				}
+				if (!valid) {
+					continue;
+				}
+				// Step-3: Unlink the node top-down
+				for (int lane = topLane; lane >= 0; lane--) {
+					NEXT.setRelease(predecessors[lane].next, lane, next(victim, lane));
+				}
+				victim.lock.unlock();
+				size.decrement();
+				return true;
+			} finally {
+				unlock(predecessors, highestLocked);
+			}
+		}
+	}
+
+	// a predecessor of several lanes was locked once per lane(reentrant lock)
+	private static void unlock(Node[] predecessors, int highestLocked) {
+		for (int lane = 0; lane <= highestLocked; lane++) {
+			predecessors[lane].lock.unlock();
+		}
+	}
+
+	// top lane of a new node: 0 with probability 3/4, 1 with 3/16, ...
+	private static int randomLanes() {
+		int random = ThreadLocalRandom.current().nextInt();
+		int topLane = 0;
+		while ((random & 3) == 0 && topLane < MAX_LANES) {
+			topLane++;
+			random >>>= 2;
+		}
+		return topLane;
+	}
+
+	// runner
+	public static void main(String[] args) throws InterruptedException {
+		ConcurrentSortedLinkedList list = new ConcurrentSortedLinkedList();
+		int keys = 1 << 16;
+		for (int input = 0; input < keys; input += 2) {
+			list.insert(input);
+		}
+
+		// 90% contains, 10% insert/delete on every core, at least 4 threads so they interleave on small machines
+		int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			workers[t] = new Thread(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < 1_000_000; i++) {
+					int key = random.nextInt(keys);
+					int operation = random.nextInt(100);
+					if (operation < 90) {
+						list.contains(key);
+					} else if (operation < 95) {
+						list.insert(key);
+					} else {
+						list.delete(key);
+					}
+				}
+			});
+			workers[t].start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		// every lane must be strictly sorted(no duplicate, no lost link) and the chain must hold size live nodes
+		int counted = 0;
+		for (int lane = MAX_LANES; lane >= 0; lane--) {
+			Node previous = null;
+			for (Node node = next(list.head, lane); node != list.tail; node = next(node, lane)) {
+				if (previous != null && previous.data >= node.data) {
+					throw new IllegalStateException("lane " + lane + " not sorted: " + previous.data + " -> " + node.data);
+				}
+				if (lane == 0) {
+					if (node.marked || !node.fullyLinked) {
+						throw new IllegalStateException("dead node left in the chain: " + node.data);
+					}
+					counted++;
+				}
+				previous = node;
+			}
+		}
+		System.out.println("size: " + list.size() + " counted: " + counted);
+		if (counted != list.size()) {
+			throw new IllegalStateException("size " + list.size() + " but " + counted + " nodes in the chain");
+		}
+	}
+}
@@ -1,5 +1,13 @@
 package linkedList;
 
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
 public class LinkedList {
 	
   /**
@@ -22,6 +30,14 @@ public class LinkedList {
 	}
 
 	Node head;
+	// last node, append links the new node here without walking the list
+	Node tail;
+	// number of nodes
+	int size;
+
+	public int size() {
+		return size;
+	}
 
   // we can insert the data into LinkedList in three ways: 1- From the front, 2- After a given node, 3- At the end of LinkedList
   
@@ -54,6 +70,11 @@ public class LinkedList {
 
 		// Step-3: Move the head pointer to newNode
 		head = newNode;
+		// Step-4: The first node of an empty list is also the last one
+		if (tail == null) {
+			tail = newNode;
+		}
+		size++;
 	}
 
   /**
@@ -77,6 +98,10 @@ public class LinkedList {
 		Node newNode = new Node(data);
 		newNode.next = prevNode.next;
 		prevNode.next = newNode;
+		if (prevNode == tail) {
+			tail = newNode;
+		}
+		size++;
 	}
 
   /**
@@ -84,15 +109,15 @@ public class LinkedList {
    *  Here the arrow(->) represents next pointer.
    *  1- Given LL:                                                          head-> data1 -> data2 -> null
    *  2- Create new Node and insert data:                                   dataN->null
-   *  3- Traverse till lastNode which is lastNode data2.next=:              head -> data1 -> data2 -> null
+   *  3- The tail pointer always points to the lastNode(data2), no traversal: head -> data1 -> data2 -> null
    *                                                                                             |
-   *                                                                                  lastNode----
+   *                                                                                      tail----
    *    
    *  4- Re-point lastNode next pointer to newNode: lastNode.next->dataN =: head -> data1 -> data2 ->  null
    *                                                                                            |       /.\
    *                                                                                           \./       |
    *                                                                                           dataN-----
-   *                                                                                               
+   *  5- Move the tail pointer to newNode, so append is O(1) and building a list of n items is O(n)
    */
 	public void append(int data) {
 		// Step-1: Create a new node and insert the data
@@ -100,14 +125,13 @@ public class LinkedList {
 		// Step-2: Check if LinkedList is empty, make new node as head
 		if (head == null) {
 			head = newNode;
-			return;
+		} else {
+			// Step-3: Else assign the lastNode(tail) next to newNode
+			tail.next = newNode;
 		}
-		// Step-3: Else Traverse till last node and assign the lastNode next to newNode
-		Node lastNode = head;
-		while (lastNode.next != null) {
-			lastNode = lastNode.next;
-		}
-		lastNode.next = newNode;
+		// Step-4: newNode is the lastNode now
+		tail = newNode;
+		size++;
 	}
 	
 	/**
@@ -136,6 +160,10 @@ public class LinkedList {
 		// Step-2: Check if the head node itself holds the data
 		if (tempNode != null && tempNode.data == data) {
 			head = tempNode.next;
+			if (head == null) {
+				tail = null;
+			}
+			size--;
 			return;
 		}
 		// Step-3: Search the node that contains the data and keep the track the
@@ -147,8 +175,247 @@ public class LinkedList {
 		// Step-4: Check if the data is not present
 		if (tempNode == null)
 			return;
-		// Step-5: Detach the node from linkedList
+		// Step-5: Detach the node from linkedList, the prevNode becomes the lastNode if tempNode was the last one
 		prevNode.next = tempNode.next;
+		if (tempNode == tail) {
+			tail = prevNode;
+		}
+		size--;
+	}
+
+	/**
+	 * In-place bottom-up merge sort, O(n log n) and O(1) extra space(no recursion, no copy), stable.
+	 *
+	 * The nodes are taken one by one as runs of 1 node. Slot i holds a sorted run of 2^i nodes, a new run is
+	 * merged with the run of its slot and carried to the next slot while that slot is taken(like adding 1 to
+	 * a binary counter):
+	 *
+	 *   take 5:  slot0: 5
+	 *   take 2:  slot0: -     slot1: 2 5                 (5 + 2 carried)
+	 *   take 4:  slot0: 4     slot1: 2 5
+	 *   take 1:  slot0: -     slot1: -     slot2: 1 2 4 5
+	 *   take 3:  slot0: 3                  slot2: 1 2 4 5  =>  merge the slots: 1 2 3 4 5
+	 *
+	 * The 32 slots are enough for any int size. Every merge runs on runs which were just built, so most of
+	 * the work happens on nodes which are still in the cache(unlike merging the whole list pass after pass).
+	 * The relinked nodes end up scattered in memory though: when n more ints fit, sorting a copy of the
+	 * values(stream().toArray()) is faster on lists of millions of nodes.
+	 *
+	 *  1- Take the next node as a run of 1 node
+	 *  2- Merge it with the runs of the same size and put it into the first free slot
+	 *  3- Merge the runs left in the slots, the last node of the last merge is the new tail
+	 */
+	public void sort() {
+		if (size < 2) {
+			return;
+		}
+		// runs[i] is a sorted run of 2^i nodes(or null), runTails[i] its last node
+		Node[] runs = new Node[32];
+		Node[] runTails = new Node[32];
+		Node dummyNode = new Node(0);
+		Node node = head;
+		while (node != null) {
+			// Step-1: Next node as a run of 1 node
+			Node run = node;
+			Node runTail = node;
+			node = node.next;
+			run.next = null;
+			// Step-2: Carry the run up, the older run goes left so the sort is stable
+			int slot = 0;
+			for (; runs[slot] != null; slot++) {
+				runTail = lastNode(runTails[slot], runTail);
+				mergeRuns(dummyNode, runs[slot], run);
+				run = dummyNode.next;
+				runs[slot] = null;
+			}
+			runs[slot] = run;
+			runTails[slot] = runTail;
+		}
+		// Step-3: Merge the runs left, the bigger(older) ones go left
+		Node run = null;
+		Node runTail = null;
+		for (int slot = 0; slot < runs.length; slot++) {
+			if (runs[slot] == null) {
+				continue;
+			}
+			if (run == null) {
+				run = runs[slot];
+				runTail = runTails[slot];
+			} else {
+				runTail = lastNode(runTails[slot], runTail);
+				mergeRuns(dummyNode, runs[slot], run);
+				run = dummyNode.next;
+			}
+		}
+		head = run;
+		tail = runTail;
+	}
+
+	// last node of the merge of a left run and a right run, given their last nodes
+	private static Node lastNode(Node leftTail, Node rightTail) {
+		return rightTail.data < leftTail.data ? leftTail : rightTail;
+	}
+
+	// link the merge of the sorted chains left and right behind lastNode
+	private static void mergeRuns(Node lastNode, Node left, Node right) {
+		while (left != null && right != null) {
+			// left first on equal data, so the sort is stable
+			if (right.data < left.data) {
+				lastNode.next = right;
+				right = right.next;
+			} else {
+				lastNode.next = left;
+				left = left.next;
+			}
+			lastNode = lastNode.next;
+		}
+		// the rest of the other chain is already sorted
+		lastNode.next = left != null ? left : right;
+	}
+
+	/**
+	 * Merge the sorted other list into this sorted list, by relinking the nodes(nothing is copied).
+	 * On equal data the nodes of this list come first, other is empty afterwards.
+	 *
+	 *   this:  1 -> 4 -> 6          =>   this:  1 -> 2 -> 4 -> 5 -> 6 -> 9
+	 *   other: 2 -> 5 -> 9               other: null
+	 *
+	 * @param other
+	 */
+	public void merge(LinkedList other) {
+		if (other == this || other.head == null) {
+			return;
+		}
+		if (head == null) {
+			head = other.head;
+			tail = other.tail;
+		} else {
+			Node dummyNode = new Node(0);
+			tail = lastNode(tail, other.tail);
+			mergeRuns(dummyNode, head, other.head);
+			head = dummyNode.next;
+		}
+		size += other.size;
+		other.head = null;
+		other.tail = null;
+		other.size = 0;
+	}
+
+	/**
+	 * Spliterator over the data from head to tail, for IntStreams.
+	 *
+	 * A node chain cannot be cut in the middle without walking to it, so(like java.util.LinkedList) trySplit
+	 * copies the next batch of values into an array and hands that out. The batches grow by BATCH_UNIT on every
+	 * split, the walking thread stays ahead and the other threads work on whole arrays.
+	 *
+	 * The list must not be changed while the spliterator is in use.
+	 *
+	 * @return
+	 */
+	public Spliterator.OfInt spliterator() {
+		return new NodeSpliterator(head, size);
+	}
+
+	public IntStream stream() {
+		return StreamSupport.intStream(spliterator(), false);
+	}
+
+	public IntStream parallelStream() {
+		return StreamSupport.intStream(spliterator(), true);
+	}
+
+	private static final int BATCH_UNIT = 1 << 10;
+	private static final int MAX_BATCH = 1 << 25;
+
+	private static final class NodeSpliterator implements Spliterator.OfInt {
+		private Node current;
+		// values left from current
+		private int remaining;
+		private int batch;
+
+		NodeSpliterator(Node current, int remaining) {
+			this.current = current;
+			this.remaining = remaining;
+		}
+
+		@Override
+		public boolean tryAdvance(IntConsumer action) {
+			if (remaining == 0) {
+				return false;
+			}
+			action.accept(current.data);
+			current = current.next;
+			remaining--;
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(IntConsumer action) {
+			Node node = current;
+			for (int i = remaining; i > 0; i--) {
+				action.accept(node.data);
+				node = node.next;
+			}
+			current = node;
+			remaining = 0;
+		}
+
+		@Override
+		public Spliterator.OfInt trySplit() {
+			if (remaining <= 1) {
+				return null;
+			}
+			// Step-1: Next batch size, never the whole rest
+			batch = Math.min(Math.min(batch + BATCH_UNIT, MAX_BATCH), remaining - 1);
+			// Step-2: Copy the batch and move on behind it
+			int[] values = new int[batch];
+			Node node = current;
+			for (int i = 0; i < batch; i++) {
+				values[i] = node.data;
+				node = node.next;
+			}
+			current = node;
+			remaining -= batch;
+			return Spliterators.spliterator(values, 0, batch, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+		}
+
+		@Override
+		public long estimateSize() {
+			return remaining;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+	}
+
+	// runner
+	public static void main(String[] args) {
+		LinkedList list = new LinkedList();
+		LinkedList other = new LinkedList();
+		int[] input = { 5, 2, 4, 1, 3 };
+		for (int data : input) {
+			list.append(data);
+			other.append(data * 2);
+		}
+		list.sort();
+		other.sort();
+		list.merge(other);
+		System.out.println(Arrays.toString(list.stream().toArray()) + " size: " + list.size() + " tail: " + list.tail.data);
+
+		// sort and aggregate in place, the timings of big lists are in LinkedListSortBenchmark and
+		// LinkedListBenchmark.streamSum/parallelStreamSum
+		LinkedList big = new LinkedList();
+		Random random = new Random(42);
+		for (int i = 0; i < 100_000; i++) {
+			big.append(random.nextInt(1_000_000));
+		}
+		big.sort();
+		long sum = big.stream().asLongStream().sum();
+		long parallelSum = big.parallelStream().asLongStream().sum();
+		System.out.println("sorted: " + Arrays.equals(big.stream().toArray(), big.stream().sorted().toArray()) + ", sum: "
+				+ sum + ", parallel sum: " + parallelSum);
 	}
 
 }
@@ -0,0 +1,216 @@
+package linkedList;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * LinkedList whose nodes live in a single long[] slab instead of one object per node.
+ *
+ * A node is a slot of the slab: the data in the high 32 bits and the index of the next slot in the low 32 bits
+ * (NIL = -1 is null). Deleted slots are not garbage, they are chained into a free list and reused by the next
+ * add/append, so once the slab is big enough add and delete allocate nothing(no GC work at all):
+ *
+ *   slot:     0          1          2          3          4
+ *           -------------------------------------------------------
+ *   slab:  | d1 |  3  | -- | NIL | d2 | NIL | d3 |  2  | -- |  1  |
+ *           -------------------------------------------------------
+ *   head = 0: d1 -> d3 -> d2 -> null              free = 4: slot 4 -> slot 1 -> null
+ *
+ * The slab doubles when the free list is empty. A node also takes 8 bytes instead of a 24 bytes Node object,
+ * and the slots of a list built in one go sit next to each other in memory.
+ *
+ * @author Prashant Singh
+ *
+ */
+public class PooledLinkedList {
+
+	private static final int NIL = -1;
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private long[] slab;
+	private int head = NIL;
+	private int tail = NIL;
+	// first free slot, free slots are chained through their next
+	private int free = NIL;
+	// slots above used were never handed out
+	private int used;
+	private int size;
+
+	public PooledLinkedList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity number of nodes the slab holds before it grows
+	 */
+	public PooledLinkedList(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+		slab = new long[capacity];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private static long slot(int data, int next) {
+		return (long) data << 32 | (next & 0xFFFFFFFFL);
+	}
+
+	private static int data(long slot) {
+		return (int) (slot >>> 32);
+	}
+
+	private static int next(long slot) {
+		return (int) slot;
+	}
+
+	private void setNext(int node, int next) {
+		slab[node] = slot(data(slab[node]), next);
+	}
+
+	/**
+	 * Hand out a slot: the first free one, else the next never used one, else grow the slab.
+	 *
+	 * @return index of the slot
+	 */
+	private int allocate() {
+		// Step-1: Reuse a deleted slot
+		if (free != NIL) {
+			int node = free;
+			free = next(slab[node]);
+			return node;
+		}
+		// Step-2: Grow the slab when every slot is handed out
+		if (used == slab.length) {
+			slab = Arrays.copyOf(slab, slab.length * 2);
+		}
+		return used++;
+	}
+
+	// put the slot on the free list
+	private void release(int node) {
+		slab[node] = slot(0, free);
+		free = node;
+	}
+
+	/**
+	 * Insert the data at the front, same as LinkedList.add.
+	 *
+	 * @param data
+	 */
+	public void add(int data) {
+		int newNode = allocate();
+		slab[newNode] = slot(data, head);
+		head = newNode;
+		if (tail == NIL) {
+			tail = newNode;
+		}
+		size++;
+	}
+
+	/**
+	 * Insert the data at the end, same as LinkedList.append.
+	 *
+	 * @param data
+	 */
+	public void append(int data) {
+		int newNode = allocate();
+		slab[newNode] = slot(data, NIL);
+		if (head == NIL) {
+			head = newNode;
+		} else {
+			setNext(tail, newNode);
+		}
+		tail = newNode;
+		size++;
+	}
+
+	/**
+	 * Delete the first node of the given data, same as LinkedList.delete, its slot goes to the free list.
+	 *
+	 * @param data
+	 */
+	public void delete(int data) {
+		// Step-1: Search the node that contains the data and keep track of the previous node
+		int prevNode = NIL;
+		int node = head;
+		while (node != NIL && data(slab[node]) != data) {
+			prevNode = node;
+			node = next(slab[node]);
+		}
+		// Step-2: Check if the data is not present
+		if (node == NIL) {
+			return;
+		}
+		// Step-3: Detach the node from the list
+		int nextNode = next(slab[node]);
+		if (prevNode == NIL) {
+			head = nextNode;
+		} else {
+			setNext(prevNode, nextNode);
+		}
+		if (node == tail) {
+			tail = prevNode;
+		}
+		// Step-4: Recycle its slot
+		release(node);
+		size--;
+	}
+
+	public boolean contains(int data) {
+		for (int node = head; node != NIL; node = next(slab[node])) {
+			if (data(slab[node]) == data) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Visit every value from head to tail.
+	 *
+	 * @param action
+	 */
+	public void forEach(IntConsumer action) {
+		for (int node = head; node != NIL; node = next(slab[node])) {
+			action.accept(data(slab[node]));
+		}
+	}
+
+	public int[] toArray() {
+		int[] values = new int[size];
+		int length = 0;
+		for (int node = head; node != NIL; node = next(slab[node])) {
+			values[length++] = data(slab[node]);
+		}
+		return values;
+	}
+
+	// runner
+	public static void main(String[] args) {
+		PooledLinkedList list = new PooledLinkedList(4);
+		list.append(2);
+		list.append(3);
+		list.add(1);
+		list.append(4);
+		list.delete(3);
+		list.add(0);
+		list.delete(4);
+		list.append(5);
+		System.out.println(Arrays.toString(list.toArray()) + " size: " + list.size());
+
+		// churn: add/delete pairs on a list of 1000 nodes reuse the freed slots, the slab never grows(timed in
+		// PooledLinkedListBenchmark.churnAtHead)
+		PooledLinkedList pooled = new PooledLinkedList(1024);
+		for (int data = 0; data < 1000; data++) {
+			pooled.append(data);
+		}
+		for (int i = 0; i < 100_000; i++) {
+			pooled.add(-1);
+			pooled.delete(-1);
+		}
+		System.out.println("churn size: " + pooled.size() + ", slab: " + pooled.slab.length);
+	}
+}
@@ -0,0 +1,224 @@
+package linkedList;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Sorted LinkedList with skip-list express lanes: insert, contains and delete in expected O(log n).
+ *
+ * The values stay in a plain sorted Node chain(data -> next, duplicates allowed). On top of it, every node
+ * gets an index node on lane 1 with probability 1/4, on lane 2 with probability 1/16, and so on. An index
+ * node points right to the next index node of its lane and down to the index node(or Node) below it:
+ *
+ *   lane 2:  H ------------------------------------> 40 ---------------------> null
+ *            |                                       |
+ *   lane 1:  H -----------> 15 ------------------->  40 ---------> 62 -------> null
+ *            |              |                        |             |
+ *   chain:  head -> 3 -> 9 -> 15 -> 21 -> 27 -> 33 -> 40 -> 51 -> 62 -> 70 -> null
+ *
+ * A search runs right on the top lane while the next index node is smaller than the data, drops down a
+ * lane and repeats, and finishes with a few steps on the chain: expected O(log n) nodes are visited.
+ * A new node gets its random number of lanes and is linked behind the last visited index node of every
+ * lane(the update array), delete unlinks it from the same positions.
+ *
+ * @author Prashant Singh
+ *
+ */
+public class SortedLinkedList {
+
+	static final class Node {
+		int data;
+		Node next;
+
+		Node(int data) {
+			this.data = data;
+		}
+	}
+
+	// express lane node
+	static final class Index {
+		final Node node;
+		final Index down;
+		Index right;
+
+		Index(Node node, Index down, Index right) {
+			this.node = node;
+			this.down = down;
+			this.right = right;
+		}
+	}
+
+	// with 2 random bits per lane, 4^15 nodes are enough for lanes of 15 levels
+	private static final int MAX_LANES = 15;
+
+	// sentinel, the values start at head.next
+	final Node head = new Node(0);
+	// head of the top lane, null while there is no lane
+	Index headIndex;
+	int lanes;
+	int size;
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Search the last node smaller than data, it is the head sentinel if there is none.
+	 *
+	 * @param data
+	 * @param update receives the last index node smaller than data of every lane(update[0] is lane 1), may be null
+	 * @return
+	 */
+	private Node findPredecessor(int data, Index[] update) {
+		Node predecessor = head;
+		int lane = lanes;
+		// Step-1: Run right on a lane while the next index node is smaller, then drop down a lane
+		for (Index index = headIndex; index != null; index = index.down) {
+			while (index.right != null && index.right.node.data < data) {
+				index = index.right;
+			}
+			if (update != null) {
+				update[--lane] = index;
+			}
+			predecessor = index.node;
+		}
+		// Step-2: Last steps on the chain
+		while (predecessor.next != null && predecessor.next.data < data) {
+			predecessor = predecessor.next;
+		}
+		return predecessor;
+	}
+
+	/**
+	 * Insert data at its position in the sorted order, in front of the values equal to it.
+	 *
+	 *  1- Draw the number of lanes of the new node, at most one lane more than the list has
+	 *  2- Search the predecessor of data and remember the last index node of every lane
+	 *  3- Link the new node into the chain, then an index node on each of its lanes
+	 *
+	 * @param data
+	 */
+	public void insert(int data) {
+		// Step-1: Random number of lanes, a new top lane starts with the head only
+		int nodeLanes = randomLanes();
+		if (nodeLanes > lanes) {
+			nodeLanes = lanes + 1;
+			headIndex = new Index(head, headIndex, null);
+			lanes++;
+		}
+		// Step-2: Predecessor on the chain and on every lane
+		Index[] update = new Index[lanes];
+		Node predecessor = findPredecessor(data, update);
+		// Step-3: Link the node and its index nodes bottom-up
+		Node newNode = new Node(data);
+		newNode.next = predecessor.next;
+		predecessor.next = newNode;
+		Index down = null;
+		for (int lane = 0; lane < nodeLanes; lane++) {
+			down = new Index(newNode, down, update[lane].right);
+			update[lane].right = down;
+		}
+		size++;
+	}
+
+	// lane count of a new node: 0 with probability 3/4, 1 with 3/16, ...
+	private static int randomLanes() {
+		int random = ThreadLocalRandom.current().nextInt();
+		int nodeLanes = 0;
+		while ((random & 3) == 0 && nodeLanes < MAX_LANES) {
+			nodeLanes++;
+			random >>>= 2;
+		}
+		return nodeLanes;
+	}
+
+	public boolean contains(int data) {
+		Node node = findPredecessor(data, null).next;
+		return node != null && node.data == data;
+	}
+
+	/**
+	 * Delete the first node of the given data.
+	 *
+	 *  1- Search the predecessor of data and remember the last index node of every lane
+	 *  2- Detach the node from the chain
+	 *  3- On every lane, the index node behind the remembered one belongs to the node if it has that lane
+	 *  4- Drop the top lanes which became empty
+	 *
+	 * @param data
+	 * @return true if a node was deleted
+	 */
+	public boolean delete(int data) {
+		// Step-1: Predecessor on the chain and on every lane
+		Index[] update = new Index[lanes];
+		Node predecessor = findPredecessor(data, update);
+		Node node = predecessor.next;
+		if (node == null || node.data != data) {
+			return false;
+		}
+		// Step-2: Detach the node from the chain
+		predecessor.next = node.next;
+		// Step-3: Detach its index nodes, it is the first node of its data so it follows the remembered ones
+		for (int lane = 0; lane < update.length; lane++) {
+			Index right = update[lane].right;
+			if (right == null || right.node != node) {
+				break;
+			}
+			update[lane].right = right.right;
+		}
+		// Step-4: Drop empty top lanes
+		while (headIndex != null && headIndex.right == null) {
+			headIndex = headIndex.down;
+			lanes--;
+		}
+		size--;
+		return true;
+	}
+
+	/**
+	 * Visit every value in sorted order.
+	 *
+	 * @param action
+	 */
+	public void forEach(IntConsumer action) {
+		for (Node node = head.next; node != null; node = node.next) {
+			action.accept(node.data);
+		}
+	}
+
+	public int[] toArray() {
+		int[] values = new int[size];
+		int length = 0;
+		for (Node node = head.next; node != null; node = node.next) {
+			values[length++] = node.data;
+		}
+		return values;
+	}
+
+	// runner
+	public static void main(String[] args) {
+		SortedLinkedList list = new SortedLinkedList();
+		int[] input = { 40, 3, 62, 15, 9, 51, 27, 70, 21, 33, 15 };
+		for (int data : input) {
+			list.insert(data);
+		}
+		list.delete(62);
+		list.delete(15);
+		System.out.println(Arrays.toString(list.toArray()) + " contains 15: " + list.contains(15) + " contains 62: "
+				+ list.contains(62));
+
+		// the lanes grow with the list and shrink again with the deletes, the timing of a whole fill and drain
+		// is SortedLinkedListBenchmark.insertAllDeleteAll
+		SortedLinkedList big = new SortedLinkedList();
+		for (int data = 0; data < 10_000; data++) {
+			big.insert(data);
+		}
+		int lanes = big.lanes;
+		for (int data = 0; data < 10_000; data++) {
+			big.delete(data);
+		}
+		System.out.println("lanes of 10000 values: " + lanes + ", after deleting them size: " + big.size() + ", lanes: "
+				+ big.lanes);
+	}
+}
@@ -0,0 +1,211 @@
+package linkedList;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Unrolled LinkedList: every node holds a small chunk(int[]) of values instead of a single value.
+ *
+ *    head                                                    tail
+ *     |                                                       |
+ *    \./                                                     \./
+ *    ---------------------      ---------------------       ---------------------
+ *   | d1 d2 d3 d4 .. | 5  |--> | d6 d7 .. .. .. | 2  |-->   | d8 d9 d10 .. | 3   |--> null
+ *    ---------------------      ---------------------       ---------------------
+ *     values[]        count
+ *
+ * A value costs 4 bytes in its chunk(+ the chunk and array headers shared by up to CHUNK_CAPACITY values)
+ * instead of a whole Node object(header, value, next and outer pointer: 24 bytes), and a scan reads the
+ * values of a chunk one after the other from the same cache lines instead of chasing a pointer per value.
+ *
+ * Same operations as LinkedList(add at the front, append at the end, delete the first node of the given data),
+ * append is O(1) through the tail pointer. A chunk which gets less than half full by a delete is merged with
+ * the next chunk when both fit into one, so the chunks stay at least about half full.
+ *
+ * @author Prashant Singh
+ *
+ */
+public class UnrolledLinkedList {
+
+	static final int CHUNK_CAPACITY = 32;
+
+	class Node {
+		final int[] values = new int[CHUNK_CAPACITY];
+		int count;
+		Node next;
+	}
+
+	Node head;
+	Node tail;
+	int size;
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Insert the data at the front.
+	 *
+	 *  1- Head chunk has room: shift its values one to the right and put data at index 0
+	 *  2- Head chunk is full(or list is empty): a new chunk holding data becomes the head
+	 *
+	 * @param data
+	 */
+	public void add(int data) {
+		// Step-1: New head chunk when there is no room in front
+		if (head == null || head.count == CHUNK_CAPACITY) {
+			Node newNode = new Node();
+			newNode.next = head;
+			head = newNode;
+			if (tail == null) {
+				tail = newNode;
+			}
+		}
+		// Step-2: Make room at index 0 of the head chunk
+		System.arraycopy(head.values, 0, head.values, 1, head.count);
+		head.values[0] = data;
+		head.count++;
+		size++;
+	}
+
+	/**
+	 * Insert the data at the end, O(1): into the tail chunk, or into a new tail chunk when it is full.
+	 *
+	 * @param data
+	 */
+	public void append(int data) {
+		// Step-1: New tail chunk when the last one is full
+		if (tail == null || tail.count == CHUNK_CAPACITY) {
+			Node newNode = new Node();
+			if (tail == null) {
+				head = newNode;
+			} else {
+				tail.next = newNode;
+			}
+			tail = newNode;
+		}
+		// Step-2: Put data behind the last value
+		tail.values[tail.count++] = data;
+		size++;
+	}
+
+	/**
+	 * Delete the first occurrence of data.
+	 *
+	 *  1- Search the chunk holding data and keep track of the previous chunk
+	 *  2- Shift the values behind data one to the left
+	 *  3- Empty chunk: unlink it
+	 *     Less than half full chunk: pull the values of the next chunk in if they fit, unlink the next chunk
+	 *
+	 * @param data
+	 */
+	public void delete(int data) {
+		// Step-1: Search the chunk and the index of data
+		Node prevNode = null;
+		Node currentNode = head;
+		int index = -1;
+		while (currentNode != null) {
+			index = indexOf(currentNode, data);
+			if (index >= 0) {
+				break;
+			}
+			prevNode = currentNode;
+			currentNode = currentNode.next;
+		}
+		// Step-2: Check if the data is not present
+		if (currentNode == null) {
+			return;
+		}
+		// Step-3: Close the gap inside the chunk
+		System.arraycopy(currentNode.values, index + 1, currentNode.values, index, currentNode.count - index - 1);
+		currentNode.count--;
+		size--;
+		// Step-4: Unlink an empty chunk, merge a sparse chunk with its next chunk
+		if (currentNode.count == 0) {
+			unlink(prevNode, currentNode);
+		} else if (currentNode.count < CHUNK_CAPACITY / 2 && currentNode.next != null
+				&& currentNode.count + currentNode.next.count <= CHUNK_CAPACITY) {
+			Node nextNode = currentNode.next;
+			System.arraycopy(nextNode.values, 0, currentNode.values, currentNode.count, nextNode.count);
+			currentNode.count += nextNode.count;
+			unlink(currentNode, nextNode);
+		}
+	}
+
+	private static int indexOf(Node node, int data) {
+		int[] values = node.values;
+		for (int i = 0; i < node.count; i++) {
+			if (values[i] == data) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// remove node, the next of prevNode(null if node is the head)
+	private void unlink(Node prevNode, Node node) {
+		if (prevNode == null) {
+			head = node.next;
+		} else {
+			prevNode.next = node.next;
+		}
+		if (node == tail) {
+			tail = prevNode;
+		}
+	}
+
+	public boolean contains(int data) {
+		for (Node node = head; node != null; node = node.next) {
+			if (indexOf(node, data) >= 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Visit every value from head to tail.
+	 *
+	 * @param action
+	 */
+	public void forEach(IntConsumer action) {
+		for (Node node = head; node != null; node = node.next) {
+			int[] values = node.values;
+			for (int i = 0; i < node.count; i++) {
+				action.accept(values[i]);
+			}
+		}
+	}
+
+	public int[] toArray() {
+		int[] values = new int[size];
+		int length = 0;
+		for (Node node = head; node != null; node = node.next) {
+			System.arraycopy(node.values, 0, values, length, node.count);
+			length += node.count;
+		}
+		return values;
+	}
+
+	// runner
+	public static void main(String[] args) {
+		UnrolledLinkedList list = new UnrolledLinkedList();
+		for (int data = 1; data <= 100; data++) {
+			list.append(data);
+		}
+		list.add(0);
+		for (int data = 2; data <= 100; data += 2) {
+			list.delete(data);
+		}
+		System.out.println(list.size() + " " + Arrays.toString(list.toArray()));
+
+		// sequential scan of one million values
+		UnrolledLinkedList big = new UnrolledLinkedList();
+		for (int data = 0; data < 1_000_000; data++) {
+			big.append(data);
+		}
+		long[] sum = new long[1];
+		big.forEach(data -> sum[0] += data);
+		System.out.println(sum[0]);
+	}
+}
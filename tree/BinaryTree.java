@@ -1,7 +1,17 @@
 package tree;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongBinaryOperator;
 
 
 public class BinaryTree {
@@ -21,6 +31,39 @@ public class BinaryTree {
 	// initialize the root with null
 	public TreeNode root;
 
+	// gives the generic tree algorithms access to the nodes of this tree
+	static final NodeAccessor<TreeNode> NODE_ACCESSOR = new NodeAccessor<TreeNode>() {
+		@Override
+		public TreeNode left(TreeNode node) {
+			return node.left;
+		}
+
+		@Override
+		public TreeNode right(TreeNode node) {
+			return node.right;
+		}
+
+		@Override
+		public int value(TreeNode node) {
+			return node.value;
+		}
+	};
+
+	private static final ParallelTreeTraversal<TreeNode> PARALLEL_TRAVERSAL = new ParallelTreeTraversal<TreeNode>(NODE_ACCESSOR);
+
+	private final TreeCodec<TreeNode> codec = new TreeCodec<TreeNode>(NODE_ACCESSOR, new TreeCodec.NodeFactory<TreeNode>() {
+		@Override
+		public TreeNode newNode(int value) {
+			return new TreeNode(value);
+		}
+
+		@Override
+		public void link(TreeNode node, TreeNode left, TreeNode right) {
+			node.left = left;
+			node.right = right;
+		}
+	});
+
 	public TreeNode addRecursive(TreeNode currentNode, int value) {
 		// base condition, when value is insert from root
 		if (currentNode == null) {
@@ -48,56 +91,356 @@ public class BinaryTree {
 		root = addRecursive(root, value);
 	}
 
-	private List<Integer> processPostOrderTraversal(TreeNode root, List<Integer> processedList) {
-		if (root != null) {
-			processPostOrderTraversal(root.left, processedList);
-			processPostOrderTraversal(root.right, processedList);
-			processedList.add(root.value);
-		}
-		return processedList;
-	}
-
 	public List<Integer> postOrderTraversal(TreeNode root) {
 		List<Integer> postOrderTraverseVal = new ArrayList<Integer>();
-		if (root == null) {
-			return postOrderTraverseVal;
+		postOrderTraversal(root, postOrderTraverseVal::add);
+		return postOrderTraverseVal;
+	}
+
+	/**
+	 * TRAVERSAL: POST-ORDER-TRAVERSAL without recursion.
+	 *
+	 * The path to the current node is kept on an array stack(O(h) memory, no stack overflow on degenerate
+	 * trees). A node is visited when we come back to it from its right subtree(or it has none):
+	 *
+	 *          node          lastVisited == node.right  ->  right subtree done, visit node
+	 *         /    \
+	 *       ...    right
+	 *
+	 * The tree is only read, several threads may traverse the same tree at the same time.
+	 *
+	 * @param root
+	 * @param action receives every value in post-order
+	 */
+	public void postOrderTraversal(TreeNode root, IntConsumer action) {
+		TreeNode[] stack = new TreeNode[32];
+		int top = 0;
+		TreeNode currentNode = root;
+		TreeNode lastVisited = null;
+		while (currentNode != null || top > 0) {
+			// Step-1: Go down left and keep the path
+			if (currentNode != null) {
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, top * 2);
+				}
+				stack[top++] = currentNode;
+				currentNode = currentNode.left;
+				continue;
+			}
+			TreeNode node = stack[top - 1];
+			if (node.right != null && node.right != lastVisited) {
+				// Step-2: Right subtree is not done yet, go into it
+				currentNode = node.right;
+			} else {
+				// Step-3: Both subtrees are done, visit the node
+				action.accept(node.value);
+				lastVisited = node;
+				top--;
+			}
 		}
-		return processPostOrderTraversal(root, postOrderTraverseVal);
 	}
 
-	private List<Integer> processPreOrderTraversal(TreeNode root, List<Integer> processedList) {
-		if (root != null) {
-			processedList.add(root.value);
-			processPreOrderTraversal(root.left, processedList);
-			processPreOrderTraversal(root.right, processedList);
+	/**
+	 * TRAVERSAL: POST-ORDER-TRAVERSAL without recursion and without extra memory(Morris traversal).
+	 *
+	 * Same threading as the in-order traversal. A node is reported after its right subtree, so when we come
+	 * back through the thread of a node, the right edge chain of its left subtree is reversed in place,
+	 * visited bottom-up and reversed back:
+	 *
+	 *          node  <-----
+	 *         /            |
+	 *       N1             | thread
+	 *         \            |       visit: pred, N2, N1
+	 *          N2          |
+	 *            \         |
+	 *             pred ----
+	 *
+	 * A dummy node on top of the root makes the right edge chain of the whole tree the last one visited.
+	 *
+	 * Needs exclusive access: while it runs the tree is threaded, so it must not be read(not even traversed)
+	 * or modified by any other thread or by action. It is not exception safe either, if action throws, the
+	 * threads stay in the tree as cycles. Use postOrderTraversal(root, action) unless the O(h) stack matters.
+	 *
+	 * @param root
+	 * @param action receives every value in post-order
+	 */
+	public void postOrderTraversalMorris(TreeNode root, IntConsumer action) {
+		TreeNode dummyNode = new TreeNode(0);
+		dummyNode.left = root;
+		TreeNode currentNode = dummyNode;
+		while (currentNode != null) {
+			if (currentNode.left == null) {
+				currentNode = currentNode.right;
+				continue;
+			}
+			TreeNode predecessor = getPredecessor(currentNode);
+			if (predecessor.right == null) {
+				predecessor.right = currentNode;
+				currentNode = currentNode.left;
+			} else {
+				// left subtree is done, visit its right edge chain bottom-up
+				reverseRightChain(currentNode.left, predecessor);
+				for (TreeNode node = predecessor;; node = node.right) {
+					action.accept(node.value);
+					if (node == currentNode.left) {
+						break;
+					}
+				}
+				reverseRightChain(predecessor, currentNode.left);
+				predecessor.right = null;
+				currentNode = currentNode.right;
+			}
+		}
+	}
 
+	// reverse the right pointers of the chain from -> to, the right pointer of from is left untouched
+	private void reverseRightChain(TreeNode from, TreeNode to) {
+		TreeNode previousNode = from;
+		TreeNode node = from.right;
+		while (previousNode != to) {
+			TreeNode nextNode = node.right;
+			node.right = previousNode;
+			previousNode = node;
+			node = nextNode;
 		}
-		return processedList;
 	}
 
 	public List<Integer> preOrderTraversal(TreeNode root) {
 		List<Integer> preOrderTraverseVal = new ArrayList<Integer>();
-		if (root == null) {
-			return preOrderTraverseVal;
-		}
-		return processPreOrderTraversal(root, preOrderTraverseVal);
+		preOrderTraversal(root, preOrderTraverseVal::add);
+		return preOrderTraverseVal;
 	}
 
-	private List<Integer> processInOrderTraversal(TreeNode root, List<Integer> processedList) {
+	/**
+	 * TRAVERSAL: PRE-ORDER-TRAVERSAL without recursion.
+	 *
+	 * A node is visited when it is popped, then its right child is pushed below its left child, so the left
+	 * subtree is done first. Array stack(O(h) memory), the tree is only read, several threads may traverse
+	 * the same tree at the same time.
+	 *
+	 * @param root
+	 * @param action receives every value in pre-order
+	 */
+	public void preOrderTraversal(TreeNode root, IntConsumer action) {
+		TreeNode[] stack = new TreeNode[32];
+		int top = 0;
 		if (root != null) {
-			processInOrderTraversal(root.left, processedList);
-			processedList.add(root.value);
-			processInOrderTraversal(root.right, processedList);
+			stack[top++] = root;
+		}
+		while (top > 0) {
+			TreeNode node = stack[--top];
+			action.accept(node.value);
+			if (top + 2 > stack.length) {
+				stack = Arrays.copyOf(stack, stack.length * 2);
+			}
+			if (node.right != null) {
+				stack[top++] = node.right;
+			}
+			if (node.left != null) {
+				stack[top++] = node.left;
+			}
+		}
+	}
+
+	/**
+	 * TRAVERSAL: PRE-ORDER-TRAVERSAL without recursion and without extra memory(Morris traversal).
+	 *
+	 * Same threading as the in-order traversal, but the node is reported when the thread is created,
+	 * i.e. before its left subtree.
+	 *
+	 * Needs exclusive access: while it runs the tree is threaded, so it must not be read(not even traversed)
+	 * or modified by any other thread or by action. It is not exception safe either, if action throws, the
+	 * threads stay in the tree as cycles. Use preOrderTraversal(root, action) unless the O(h) stack matters.
+	 *
+	 * @param root
+	 * @param action receives every value in pre-order
+	 */
+	public void preOrderTraversalMorris(TreeNode root, IntConsumer action) {
+		TreeNode currentNode = root;
+		while (currentNode != null) {
+			if (currentNode.left == null) {
+				action.accept(currentNode.value);
+				currentNode = currentNode.right;
+				continue;
+			}
+			TreeNode predecessor = getPredecessor(currentNode);
+			if (predecessor.right == null) {
+				action.accept(currentNode.value);
+				predecessor.right = currentNode;
+				currentNode = currentNode.left;
+			} else {
+				predecessor.right = null;
+				currentNode = currentNode.right;
+			}
 		}
-		return processedList;
 	}
 
 	public List<Integer> inOrderTraversal(TreeNode root) {
 		List<Integer> inOrderTraverseVal = new ArrayList<Integer>();
-		if (root == null) {
-			return inOrderTraverseVal;
+		inOrderTraversal(root, inOrderTraverseVal::add);
+		return inOrderTraverseVal;
+	}
+
+	/**
+	 * TRAVERSAL: IN-ORDER-TRAVERSAL without recursion.
+	 *
+	 * Walks the in-order cursor(array stack of the path, O(h) memory). The tree is only read, several threads
+	 * may traverse the same tree at the same time.
+	 *
+	 * @param root
+	 * @param action receives every value in in-order
+	 */
+	public void inOrderTraversal(TreeNode root, IntConsumer action) {
+		PrimitiveIterator.OfInt cursor = new InOrderCursor(root);
+		while (cursor.hasNext()) {
+			action.accept(cursor.nextInt());
+		}
+	}
+
+	/**
+	 * TRAVERSAL: IN-ORDER-TRAVERSAL without recursion and without extra memory(Morris traversal).
+	 *
+	 * Before going into the left subtree of a node, the right pointer of its in-order predecessor(maxNode
+	 * of the left subtree) is pointed back to the node(thread). When we come back through the thread the
+	 * left subtree is done: the thread is removed, the node is visited and we continue with the right subtree.
+	 *
+	 *          node  <-----
+	 *         /            |
+	 *       N1             | thread
+	 *      /  \            |
+	 *    N3    pred -------
+	 *
+	 * The threads are removed again by the end of the walk.
+	 *
+	 * Needs exclusive access: while it runs the tree is threaded, so it must not be read(not even traversed)
+	 * or modified by any other thread or by action. It is not exception safe either, if action throws, the
+	 * threads stay in the tree as cycles. Use inOrderTraversal(root, action) unless the O(h) stack matters.
+	 *
+	 * @param root
+	 * @param action receives every value in in-order
+	 */
+	public void inOrderTraversalMorris(TreeNode root, IntConsumer action) {
+		TreeNode currentNode = root;
+		while (currentNode != null) {
+			if (currentNode.left == null) {
+				action.accept(currentNode.value);
+				currentNode = currentNode.right;
+				continue;
+			}
+			TreeNode predecessor = getPredecessor(currentNode);
+			if (predecessor.right == null) {
+				// create the thread and go left
+				predecessor.right = currentNode;
+				currentNode = currentNode.left;
+			} else {
+				// came back through the thread, remove it
+				predecessor.right = null;
+				action.accept(currentNode.value);
+				currentNode = currentNode.right;
+			}
 		}
-		return processInOrderTraversal(root, inOrderTraverseVal);
+	}
+
+	// maxNode of the left subtree, stops at an existing thread back to node
+	private TreeNode getPredecessor(TreeNode node) {
+		TreeNode predecessor = node.left;
+		while (predecessor.right != null && predecessor.right != node) {
+			predecessor = predecessor.right;
+		}
+		return predecessor;
+	}
+
+	/**
+	 * In-order cursor, it only keeps the path to the current node(O(h) memory), does not modify the tree
+	 * and returns primitive ints, so nothing is allocated per value.
+	 *
+	 * @param root
+	 * @return
+	 */
+	public PrimitiveIterator.OfInt inOrderIterator(TreeNode root) {
+		return new InOrderCursor(root);
+	}
+
+	private class InOrderCursor implements PrimitiveIterator.OfInt {
+		private TreeNode[] stack = new TreeNode[32];
+		private int top;
+
+		InOrderCursor(TreeNode root) {
+			pushLeft(root);
+		}
+
+		private void pushLeft(TreeNode node) {
+			while (node != null) {
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, top * 2);
+				}
+				stack[top++] = node;
+				node = node.left;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return top > 0;
+		}
+
+		@Override
+		public int nextInt() {
+			if (top == 0) {
+				throw new NoSuchElementException();
+			}
+			TreeNode node = stack[--top];
+			pushLeft(node.right);
+			return node.value;
+		}
+	}
+
+	/**
+	 * PARALLEL TRAVERSAL: combine mapper(value) of every node on the common ForkJoinPool,
+	 * see ParallelTreeTraversal.
+	 *
+	 * @param root
+	 * @param mapper applied to the value of every node
+	 * @param identity result of an empty tree
+	 * @param combiner associative and commutative
+	 * @return
+	 */
+	public long parallelReduce(TreeNode root, IntToLongFunction mapper, long identity, LongBinaryOperator combiner) {
+		return PARALLEL_TRAVERSAL.reduce(root, mapper, identity, combiner);
+	}
+
+	public long parallelSize(TreeNode root) {
+		return PARALLEL_TRAVERSAL.size(root);
+	}
+
+	public long parallelSum(TreeNode root) {
+		return PARALLEL_TRAVERSAL.sum(root);
+	}
+
+	// the parallel walks read the tree from ForkJoinPool workers: no thread may change it or walk it with Morris meanwhile
+	public int parallelHeight(TreeNode root) {
+		return PARALLEL_TRAVERSAL.height(root);
+	}
+
+	// freeze the tree into a read-only EytzingerTree, the in-order traversal must be sorted(BST)
+	public EytzingerTree freeze(TreeNode root) {
+		return EytzingerTree.freeze(root, NODE_ACCESSOR);
+	}
+
+	// write the tree to channel in the binary format of TreeCodec, returns the number of nodes written
+	public long writeTo(TreeNode root, WritableByteChannel channel) throws IOException {
+		return codec.write(root, channel);
+	}
+
+	// replace the tree by the one read from channel, it keeps the shape it was written with.
+	// The tree must be the rest of the channel, see readFrom(channel, buffer)
+	public void readFrom(ReadableByteChannel channel) throws IOException {
+		root = codec.read(channel);
+	}
+
+	// same as readFrom(channel), the bytes read past the tree stay in buffer for the next read(TreeCodec.read)
+	public void readFrom(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+		root = codec.read(channel, buffer);
 	}
 	
 }
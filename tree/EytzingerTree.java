@@ -0,0 +1,162 @@
+package tree;
+
+import java.util.Arrays;
+
+/**
+ * EYTZINGER LAYOUT: a read-only search tree frozen into one int[] without any pointer.
+ *
+ * The keys are stored in breadth first(level) order of a complete binary search tree, like a binary heap.
+ * The children of slot k are slots 2k and 2k+1(slot 0 is unused, with 0-based slots it is the usual
+ * 2i+1/2i+2), so a search only does index arithmetic:
+ *
+ *   sorted keys: [1, 2, 3, 4, 5, 6, 7]
+ *
+ *               4(1)               slot:  0   1  2  3  4  5  6  7
+ *             /     \             keys: [-,  4, 2, 6, 1, 3, 5, 7]
+ *          2(2)      6(3)
+ *         /   \     /   \
+ *       1(4) 3(5) 5(6) 7(7)
+ *
+ * Search(branchless): k = 1; while(k <= n) k = 2k + (keys[k] < key ? 1 : 0)
+ *   The comparison result is added to the index instead of taking a branch(compiled to a conditional
+ *   move), so there is no branch misprediction. When k runs out of the array, its bits record the path:
+ *   the trailing 1 bits are the final right turns, dropping them and one more bit gives the slot of the
+ *   smallest key >= key(lower bound).
+ *
+ * The top levels of the tree sit in the first few cache lines and the descendants of a slot are packed
+ * together, so the walk touches far fewer cache lines than following TreeNode references. It costs
+ * 4 bytes per key.
+ *
+ * @author Prashant Singh
+ *
+ */
+public class EytzingerTree {
+
+	// the search computes k = 2k + 1 for k up to n in an int
+	public static final int MAX_KEYS = (1 << 30) - 1;
+
+	// keys[1..n] in Eytzinger order, keys[0] is unused
+	private final int[] keys;
+	private final int n;
+
+	private EytzingerTree(int[] keys, int n) {
+		this.keys = keys;
+		this.n = n;
+	}
+
+	/**
+	 * Freeze sorted keys into the Eytzinger layout.
+	 *
+	 * @param sortedKeys ascending keys, at most MAX_KEYS
+	 * @return
+	 */
+	public static EytzingerTree fromSorted(int[] sortedKeys) {
+		if (sortedKeys.length > MAX_KEYS) {
+			throw new IllegalArgumentException("too many keys: " + sortedKeys.length + " > " + MAX_KEYS);
+		}
+		for (int i = 1; i < sortedKeys.length; i++) {
+			if (sortedKeys[i - 1] > sortedKeys[i]) {
+				throw new IllegalArgumentException("keys are not sorted at index " + i);
+			}
+		}
+		int n = sortedKeys.length;
+		int[] keys = new int[n + 1];
+		// in-order walk over the implicit tree places the sorted keys, the recursion depth is log(n)
+		fill(sortedKeys, keys, 1, new int[1]);
+		return new EytzingerTree(keys, n);
+	}
+
+	private static void fill(int[] sortedKeys, int[] keys, int k, int[] next) {
+		if (k < keys.length) {
+			fill(sortedKeys, keys, 2 * k, next);
+			keys[k] = sortedKeys[next[0]++];
+			fill(sortedKeys, keys, 2 * k + 1, next);
+		}
+	}
+
+	/**
+	 * Freeze a binary search tree, its in-order traversal gives the sorted keys.
+	 *
+	 * @param root
+	 * @param accessor
+	 * @return
+	 */
+	public static <N> EytzingerTree freeze(N root, NodeAccessor<N> accessor) {
+		int[] sortedKeys = new int[16];
+		int count = 0;
+		Object[] stack = new Object[32];
+		int top = 0;
+		N currentNode = root;
+		while (currentNode != null || top > 0) {
+			while (currentNode != null) {
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, top * 2);
+				}
+				stack[top++] = currentNode;
+				currentNode = accessor.left(currentNode);
+			}
+			@SuppressWarnings("unchecked")
+			N node = (N) stack[--top];
+			if (count == sortedKeys.length) {
+				if (count == MAX_KEYS) {
+					throw new IllegalArgumentException("too many keys: more than " + MAX_KEYS);
+				}
+				sortedKeys = Arrays.copyOf(sortedKeys, Math.min(count * 2, MAX_KEYS));
+			}
+			sortedKeys[count++] = accessor.value(node);
+			currentNode = accessor.right(node);
+		}
+		return fromSorted(Arrays.copyOf(sortedKeys, count));
+	}
+
+	public int size() {
+		return n;
+	}
+
+	/**
+	 * Slot of the smallest key greater than or equal to key.
+	 *
+	 * @param key
+	 * @return slot in [1, n], or 0 if every key is less than key
+	 */
+	public int lowerBound(int key) {
+		int k = 1;
+		while (k <= n) {
+			k = 2 * k + (keys[k] < key ? 1 : 0);
+		}
+		// drop the trailing right turns and the last left turn
+		return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+	}
+
+	public boolean contains(int key) {
+		int k = lowerBound(key);
+		return k != 0 && keys[k] == key;
+	}
+
+	/**
+	 * @param slot slot returned by lowerBound
+	 * @return key stored in the slot
+	 */
+	public int keyAt(int slot) {
+		if (slot < 1 || slot > n) {
+			throw new IndexOutOfBoundsException("slot " + slot + " out of [1, " + n + "]");
+		}
+		return keys[slot];
+	}
+
+	/**
+	 * Keys in Eytzinger(level) order.
+	 *
+	 * @return
+	 */
+	public int[] toArray() {
+		return Arrays.copyOfRange(keys, 1, n + 1);
+	}
+
+	// runner
+	public static void main(String[] args) {
+		EytzingerTree tree = fromSorted(new int[] { 1, 2, 3, 4, 5, 6, 7 });
+		System.out.println(Arrays.toString(tree.toArray()));
+		System.out.println(tree.contains(5) + " " + tree.contains(8) + " " + tree.keyAt(tree.lowerBound(0)));
+	}
+}
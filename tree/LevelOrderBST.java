@@ -5,6 +5,9 @@ import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongBinaryOperator;
 
 /**
  * LEVEL ORDER BINARY TREE TRAVERSAL
@@ -45,6 +48,15 @@ import java.util.Queue;
  *               ii-) Enqueue root's children
  *                    if(root.left!=null) -> q.add(root.left)
  *                    if(root.right!=null) -> q.add(root.right)
+ *
+ *  3- Using ring buffer, one level at a time(LevelOrderEngine)
+ *
+ *    traverseLevels(tree):
+ *       1- Enqueue root into an array backed ring buffer
+ *       2- Loop while(ring is not empty):
+ *                i-) count = ring.size -> all of them are on the current level
+ *               ii-) Dequeue count nodes, copy their data into batch[] and enqueue their children
+ *              iii-) consumer(level, batch, count)
  *    
  *  
  *  
@@ -67,6 +79,80 @@ public class LevelOrderBST {
     LevelOrderBST(){
     	root = null;
     }
+
+    // gives the generic tree algorithms access to the nodes of this tree
+    static final NodeAccessor<TreeNode> NODE_ACCESSOR = new NodeAccessor<TreeNode>() {
+    	@Override
+    	public TreeNode left(TreeNode node) {
+    		return node.left;
+    	}
+
+    	@Override
+    	public TreeNode right(TreeNode node) {
+    		return node.right;
+    	}
+
+    	@Override
+    	public int value(TreeNode node) {
+    		return node.data;
+    	}
+    };
+
+    private static final ParallelTreeTraversal<TreeNode> PARALLEL_TRAVERSAL = new ParallelTreeTraversal<TreeNode>(NODE_ACCESSOR);
+
+    // idle engine with the buffers of the last level order traversal, a traversal takes it out while it runs
+    private final AtomicReference<LevelOrderEngine<TreeNode>> idleEngine = new AtomicReference<LevelOrderEngine<TreeNode>>();
+
+    // null until enableMetrics is called, the traversals then only pay a null check
+    private TreeMetrics metrics;
+    // size and height of root published for the metrics by the thread using the tree, see publish
+    private volatile long publishedSize;
+    private volatile int publishedHeight;
+
+    /**
+     * METRICS: count the traversals of this tree, the levels they reach and a sample of their latencies, and
+     * publish them with the size and height of the tree as the MBean tree:type=TreeMetrics,name=name.
+     * See BinarySearchTree.enableMetrics.
+     *
+     * @param name name of the MBean
+     * @return
+     */
+    public TreeMetrics enableMetrics(String name) {
+    	if (metrics == null) {
+    		refreshMetrics();
+    		metrics = new TreeMetrics(name, () -> publishedSize, () -> publishedHeight).register();
+    	}
+    	metrics.setEnabled(true);
+    	return metrics;
+    }
+
+    // measure size and height again for the metrics, call it from the thread changing the tree
+    public void refreshMetrics() {
+    	publishedSize = parallelSizeOfTree(root);
+    	publishedHeight = parallelHeightOfTree(root);
+    }
+
+    /**
+     * The JMX thread must not walk the tree while it may be changing: size and height are published by the
+     * traversals of the whole tree, which measure them anyway, and read from these fields.
+     *
+     * @param root root the traversal started from, other subtrees are not published
+     * @param size number of nodes, -1 if the traversal did not count them
+     * @param height number of levels, -1 if the traversal did not count them
+     */
+    private void publish(TreeNode root, long size, int height) {
+    	if (root != this.root) return;
+    	if (size >= 0) publishedSize = size;
+    	if (height >= 0) publishedHeight = height;
+    }
+
+    // unregister the MBean, the traversals are back to a single null check
+    public void removeMetrics() {
+    	if (metrics != null) {
+    		metrics.unregister();
+    		metrics = null;
+    	}
+    }
     
     // height of tree
     public int heightOfTree(TreeNode root) {
@@ -79,15 +165,35 @@ public class LevelOrderBST {
     	if(leftHeight>rightHeight) {return leftHeight+1;}
     	else {return rightHeight+1;}
     }
+
+    // height of tree computed on the common ForkJoinPool, big subtrees are split between the workers
+    public int parallelHeightOfTree(TreeNode root) {
+    	return PARALLEL_TRAVERSAL.height(root);
+    }
+
+    // number of nodes computed on the common ForkJoinPool
+    public long parallelSizeOfTree(TreeNode root) {
+    	return PARALLEL_TRAVERSAL.size(root);
+    }
+
+    // map/reduce over the node data on the common ForkJoinPool, combiner must be associative and commutative
+    public long parallelReduce(TreeNode root, IntToLongFunction mapper, long identity, LongBinaryOperator combiner) {
+    	return PARALLEL_TRAVERSAL.reduce(root, mapper, identity, combiner);
+    }
     
     // Level Order Traversal using recursion
     public List<Integer> traverseLevelOrder(TreeNode root){
     	if(root==null) return Arrays.asList();
+    	long start = metrics != null ? metrics.start() : 0;
     	List<Integer> levelOrderTraversal = new ArrayList<Integer>();
     	int heightOfTree = heightOfTree(root);
     	for (int level = 1; level <=heightOfTree ; level++) {
     		traverseCurrentLevel(root, level, levelOrderTraversal);
 		}
+    	if (metrics != null) {
+    		metrics.record(TreeMetrics.TRAVERSE, start, heightOfTree, -1);
+    		publish(root, levelOrderTraversal.size(), heightOfTree);
+    	}
     	return levelOrderTraversal;
     }
     
@@ -125,10 +231,51 @@ public class LevelOrderBST {
     	}
     }
     
+    /**
+     * Level Order traversal one level at a time, O(n) and no allocation per node(see LevelOrderEngine).
+     *
+     * The buffers of the previous traversal are reused. A traversal started while another one runs(from another
+     * thread, or from the consumer) gets an engine of its own, so it is safe for both.
+     *
+     * @param root
+     * @param consumer
+     * @return number of levels
+     */
+    public int traverseLevels(TreeNode root, LevelOrderEngine.LevelConsumer consumer) {
+    	long start = metrics != null ? metrics.start() : 0;
+    	LevelOrderEngine<TreeNode> engine = idleEngine.getAndSet(null);
+    	if (engine == null) {
+    		engine = new LevelOrderEngine<TreeNode>(NODE_ACCESSOR);
+    	}
+    	int levels;
+    	try {
+    		levels = engine.traverse(root, consumer);
+    	} finally {
+    		idleEngine.set(engine);
+    	}
+    	if (metrics != null) {
+    		metrics.record(TreeMetrics.TRAVERSE, start, levels, -1);
+    		publish(root, -1, levels);
+    	}
+    	return levels;
+    }
+
+    // Level Order traversal using ring buffer
+    public List<Integer> levelOrderTraversalUsingRingBuffer(TreeNode root){
+    	List<Integer> traversedList = new ArrayList<Integer>();
+    	traverseLevels(root, (level, values, count) -> {
+    		for (int i = 0; i < count; i++) {
+    			traversedList.add(values[i]);
+    		}
+    	});
+    	return traversedList;
+    }
+    
     // Level Order traversal using Queue
     public List<Integer> levelOrderTraversalUsingQueue(TreeNode root){
     	List<Integer> traversedList = new ArrayList<Integer>();
     	if(root==null) return Arrays.asList();
+    	long start = metrics != null ? metrics.start() : 0;
     	Queue<TreeNode> queue = new LinkedList<LevelOrderBST.TreeNode>();
     	queue.add(root);
     	while(!queue.isEmpty()) {
@@ -137,6 +284,11 @@ public class LevelOrderBST {
     		if(currentNode.left!=null) {queue.add(currentNode.left);}
     		if(currentNode.right!=null) {queue.add(currentNode.right);}
     	}
+    	// the queue does not know the level boundaries, only the traversal and its latency are counted
+    	if (metrics != null) {
+    		metrics.record(TreeMetrics.TRAVERSE, start, -1, -1);
+    		publish(root, traversedList.size(), -1);
+    	}
     	
     	return traversedList;
     }
@@ -150,5 +302,13 @@ public class LevelOrderBST {
 		lob.root.left.right = new TreeNode(5);
 		System.out.println("Level order traversal using recursion: "+ lob.traverseLevelOrder(lob.root));
 		System.out.println("Level order traversal using queue: "+ lob.levelOrderTraversalUsingQueue(lob.root));
+		System.out.println("Level order traversal using ring buffer: "+ lob.levelOrderTraversalUsingRingBuffer(lob.root));
+		lob.traverseLevels(lob.root, (level, values, count) ->
+				System.out.println("level " + level + ", width " + count + ": " + Arrays.toString(Arrays.copyOf(values, count))));
+		TreeMetrics metrics = lob.enableMetrics("level-order-demo");
+		lob.levelOrderTraversalUsingRingBuffer(lob.root);
+		System.out.println("Traversals: " + metrics.getTraversals() + ", levels: " + metrics.getDepthMax());
+		System.out.println("Parallel height: "+ lob.parallelHeightOfTree(lob.root) + ", size: "+ lob.parallelSizeOfTree(lob.root)
+				+ ", sum: "+ lob.parallelReduce(lob.root, data -> data, 0, Long::sum));
 	}
 }
@@ -0,0 +1,115 @@
+package tree;
+
+/**
+ * LEVEL ORDER ENGINE: Breadth First Search traversal which hands over one whole level at a time.
+ *
+ *         1           level 1: [1]
+ *        /  \
+ *       2    3        level 2: [2, 3]
+ *     /   \
+ *    4     5          level 3: [4, 5]
+ *
+ * The nodes wait in an array backed ring buffer(no queue node allocated per enqueue) and the values of a
+ * level are copied into one int[] batch, so every node is visited once(O(n)) and nothing is allocated per
+ * node. The level number and the batch length give the level boundaries and widths in the same pass.
+ *
+ * Both buffers grow to the widest level and are kept for the next traversal, so an engine must not be
+ * used by two threads at the same time.
+ *
+ * @param <N> node type
+ */
+public class LevelOrderEngine<N> {
+
+	/**
+	 * Receives every level of the tree, top-down.
+	 */
+	public interface LevelConsumer {
+		/**
+		 * @param level level number, the root is level 1
+		 * @param values values of the level from left to right, only valid until the method returns
+		 * @param count number of values(width of the level)
+		 */
+		void accept(int level, int[] values, int count);
+	}
+
+	private final NodeAccessor<N> accessor;
+	// ring buffer, capacity is always a power of 2
+	private Object[] ring = new Object[16];
+	private int head;
+	private int tail;
+	private int[] batch = new int[16];
+
+	public LevelOrderEngine(NodeAccessor<N> accessor) {
+		this.accessor = accessor;
+	}
+
+	/**
+	 * Traverse the tree level by level.
+	 *
+	 * @param root
+	 * @param consumer
+	 * @return number of levels(height of the tree)
+	 */
+	@SuppressWarnings("unchecked")
+	public int traverse(N root, LevelConsumer consumer) {
+		if (root == null) {
+			return 0;
+		}
+		head = 0;
+		tail = 0;
+		enqueue(root);
+		int level = 0;
+		while (head != tail) {
+			// Step-1: Everything in the queue now belongs to the current level
+			int count = (tail - head) & (ring.length - 1);
+			if (count > batch.length) {
+				batch = new int[Math.max(count, batch.length * 2)];
+			}
+			// Step-2: Copy the values of the level and enqueue the next level
+			for (int i = 0; i < count; i++) {
+				N node = (N) ring[head];
+				ring[head] = null;
+				head = (head + 1) & (ring.length - 1);
+				batch[i] = accessor.value(node);
+				N left = accessor.left(node);
+				N right = accessor.right(node);
+				if (left != null) {
+					enqueue(left);
+				}
+				if (right != null) {
+					enqueue(right);
+				}
+			}
+			// Step-3: Hand the whole level over
+			consumer.accept(++level, batch, count);
+		}
+		return level;
+	}
+
+	private void enqueue(N node) {
+		ring[tail] = node;
+		tail = (tail + 1) & (ring.length - 1);
+		if (tail == head) {
+			// full, unwrap into a buffer of twice the size
+			Object[] grown = new Object[ring.length * 2];
+			int headPart = ring.length - head;
+			System.arraycopy(ring, head, grown, 0, headPart);
+			System.arraycopy(ring, 0, grown, headPart, head);
+			tail = ring.length;
+			head = 0;
+			ring = grown;
+		}
+	}
+
+	/**
+	 * Width of the widest level.
+	 *
+	 * @param root
+	 * @return
+	 */
+	public int maxWidth(N root) {
+		int[] maxWidth = new int[1];
+		traverse(root, (level, values, count) -> maxWidth[0] = Math.max(maxWidth[0], count));
+		return maxWidth[0];
+	}
+}
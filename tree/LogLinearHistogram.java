@@ -0,0 +1,119 @@
+package tree;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of non negative long values with a fixed relative precision(HdrHistogram style log-linear buckets).
+ *
+ * Values below 64 get a bucket each. Above, every power of two is split into 32 linear sub-buckets, so a
+ * bucket is never wider than 1/32 of its values(~3% error) and the whole long range fits in 1888 counters:
+ *
+ *   value:    0  1  2 ... 63 | 64 66 ... 126 | 128 132 ... 252 | 256 ...
+ *   bucket:   1  1  1 ... 1  |  2  2 ...  2  |   4   4 ...   4 |   8 ...   <- width
+ *
+ * Recording is an index computation and one atomic increment, no allocation, safe from several threads.
+ * The count and the mean are read from the buckets too, the mean is exact for values below 64 and within
+ * the bucket precision above.
+ */
+public class LogLinearHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	// values below LINEAR_LIMIT(2 * SUB_BUCKETS) are counted exactly
+	private static final int LINEAR_LIMIT = SUB_BUCKETS << 1;
+	private static final int BUCKETS = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * @param value must not be negative
+	 */
+	public void record(long value) {
+		counts.incrementAndGet(index(value));
+	}
+
+	// bucket of value, see the table above
+	static int index(long value) {
+		if (value < LINEAR_LIMIT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+		return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + subBucket;
+	}
+
+	// highest value counted in bucket index
+	static long highestValue(int index) {
+		if (index < LINEAR_LIMIT) {
+			return index;
+		}
+		int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+		long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+	// lowest value counted in bucket index
+	static long lowestValue(int index) {
+		return index == 0 ? 0 : highestValue(index - 1) + 1;
+	}
+
+	public long count() {
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			total += counts.get(i);
+		}
+		return total;
+	}
+
+	// every value counts as the middle of its bucket
+	public double mean() {
+		long n = 0;
+		double sum = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			long bucketCount = counts.get(i);
+			if (bucketCount != 0) {
+				n += bucketCount;
+				sum += bucketCount * ((lowestValue(i) + highestValue(i)) / 2.0);
+			}
+		}
+		return n == 0 ? 0 : sum / n;
+	}
+
+	/**
+	 * Value below(or at) which percentile percent of the recorded values are, rounded up to its bucket.
+	 *
+	 * @param percentile in [0, 100]
+	 * @return 0 if nothing was recorded
+	 */
+	public long percentile(double percentile) {
+		long total = count();
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return highestValue(i);
+			}
+		}
+		return highestValue(BUCKETS - 1);
+	}
+
+	public long max() {
+		for (int i = BUCKETS - 1; i >= 0; i--) {
+			if (counts.get(i) != 0) {
+				return highestValue(i);
+			}
+		}
+		return 0;
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+	}
+}
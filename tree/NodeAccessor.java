@@ -0,0 +1,18 @@
+package tree;
+
+/**
+ * Read access to the nodes of a binary tree.
+ *
+ * Every tree of the repo has its own TreeNode class, the generic tree algorithms(parallel traversal,
+ * level order...) reach the children and the value of a node only through this interface.
+ *
+ * @param <N> node type
+ */
+public interface NodeAccessor<N> {
+
+	N left(N node);
+
+	N right(N node);
+
+	int value(N node);
+}
@@ -0,0 +1,269 @@
+package tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * PARALLEL TRAVERSAL: map/reduce, height and size of a binary tree on a ForkJoinPool.
+ *
+ * A task walks its subtree with an explicit stack(no recursion, so degenerate trees are fine). Every time it
+ * has visited threshold more nodes, it forks the shallowest subtree still waiting on its stack(the bottom
+ * entry, usually the biggest one) as a new task and goes on with the rest. So there is at most one task per
+ * threshold nodes, small subtrees are always walked by the task which found them, and big(or unbalanced)
+ * trees spread over all the workers without knowing their size in advance:
+ *
+ *                 root             task-1 visits root, N1, N3, ... until threshold is reached,
+ *               /      \           then forks N2, the bottom of its stack:
+ *             N1        N2  <----- task-2
+ *            /  \
+ *          N3    N4  <------------ task-3, forked by task-1 after threshold more nodes(if still waiting)
+ *         ...
+ *
+ * A tree of at most threshold nodes is walked on the calling thread, the pool is not involved.
+ *
+ * The reduce combiner must be associative and commutative, nodes are not visited in any given order.
+ *
+ * @param <N> node type
+ */
+public class ParallelTreeTraversal<N> {
+
+	private static final int DEFAULT_THRESHOLD = 1 << 13;
+	// walk(false) gave up, the tree has more than threshold nodes
+	private static final long NOT_DONE = Long.MIN_VALUE;
+
+	private final NodeAccessor<N> accessor;
+	private final ForkJoinPool pool;
+	private final int threshold;
+
+	public ParallelTreeTraversal(NodeAccessor<N> accessor) {
+		this(accessor, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * @param accessor
+	 * @param pool pool running the tasks
+	 * @param threshold nodes a task visits on its own before it splits its remaining work
+	 */
+	public ParallelTreeTraversal(NodeAccessor<N> accessor, ForkJoinPool pool, int threshold) {
+		if (threshold < 1) {
+			throw new IllegalArgumentException("threshold must be positive: " + threshold);
+		}
+		this.accessor = accessor;
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * MAP/REDUCE: combine mapper(value) of every node.
+	 *
+	 * @param root
+	 * @param mapper applied to the value of every node
+	 * @param identity result of an empty tree
+	 * @param combiner associative and commutative
+	 * @return
+	 */
+	public long reduce(N root, IntToLongFunction mapper, long identity, LongBinaryOperator combiner) {
+		if (root == null) {
+			return identity;
+		}
+		return invoke(new ReduceTask(root, 1, mapper, identity, combiner));
+	}
+
+	/**
+	 * Number of nodes in the tree.
+	 *
+	 * @param root
+	 * @return
+	 */
+	public long size(N root) {
+		return reduce(root, value -> 1, 0, Long::sum);
+	}
+
+	/**
+	 * Sum of the node values.
+	 *
+	 * @param root
+	 * @return
+	 */
+	public long sum(N root) {
+		return reduce(root, value -> value, 0, Long::sum);
+	}
+
+	/**
+	 * Height of the tree(number of nodes on the longest root to leaf path), the max depth of all nodes.
+	 *
+	 * @param root
+	 * @return
+	 */
+	public int height(N root) {
+		if (root == null) {
+			return 0;
+		}
+		return (int) invoke(new HeightTask(root, 1));
+	}
+
+	// small trees are done on the calling thread, a handoff to the pool costs more than walking them
+	private long invoke(SubtreeTask task) {
+		long result = task.walk(false);
+		return result != NOT_DONE ? result : pool.invoke(task);
+	}
+
+	private final class ReduceTask extends SubtreeTask {
+		private static final long serialVersionUID = 1L;
+		private final IntToLongFunction mapper;
+		private final long identity;
+		private final LongBinaryOperator combiner;
+
+		ReduceTask(N root, int depth, IntToLongFunction mapper, long identity, LongBinaryOperator combiner) {
+			super(root, depth);
+			this.mapper = mapper;
+			this.identity = identity;
+			this.combiner = combiner;
+		}
+
+		@Override
+		long initial() {
+			return identity;
+		}
+
+		@Override
+		long visit(long result, N node, int depth) {
+			return combiner.applyAsLong(result, mapper.applyAsLong(accessor.value(node)));
+		}
+
+		@Override
+		long combine(long left, long right) {
+			return combiner.applyAsLong(left, right);
+		}
+
+		@Override
+		SubtreeTask fork(N node, int depth) {
+			return new ReduceTask(node, depth, mapper, identity, combiner);
+		}
+	}
+
+	private final class HeightTask extends SubtreeTask {
+		private static final long serialVersionUID = 1L;
+
+		HeightTask(N root, int depth) {
+			super(root, depth);
+		}
+
+		@Override
+		long initial() {
+			return 0;
+		}
+
+		@Override
+		long visit(long result, N node, int depth) {
+			return Math.max(result, depth);
+		}
+
+		@Override
+		long combine(long left, long right) {
+			return Math.max(left, right);
+		}
+
+		@Override
+		SubtreeTask fork(N node, int depth) {
+			return new HeightTask(node, depth);
+		}
+	}
+
+	/**
+	 * Walks the subtree of root iteratively and splits off its shallowest pending subtree after every threshold nodes.
+	 */
+	private abstract class SubtreeTask extends RecursiveTask<Long> {
+		private static final long serialVersionUID = 1L;
+		private final N root;
+		private final int depth;
+
+		SubtreeTask(N root, int depth) {
+			this.root = root;
+			this.depth = depth;
+		}
+
+		abstract long initial();
+
+		abstract long visit(long result, N node, int depth);
+
+		abstract long combine(long left, long right);
+
+		abstract SubtreeTask fork(N node, int depth);
+
+		@Override
+		protected Long compute() {
+			return walk(true);
+		}
+
+		/**
+		 * Walk the subtree, the pending subtrees are nodes[bottom, top).
+		 *
+		 * @param split fork the bottom subtree every threshold nodes, else give up after threshold nodes
+		 * @return result of the subtree, NOT_DONE if split is false and the subtree has more than threshold nodes
+		 */
+		@SuppressWarnings("unchecked")
+		long walk(boolean split) {
+			Object[] nodes = new Object[32];
+			int[] depths = new int[32];
+			int bottom = 0;
+			int top = 0;
+			nodes[top] = root;
+			depths[top++] = depth;
+			List<SubtreeTask> forked = new ArrayList<SubtreeTask>();
+			long result = initial();
+			int visited = 0;
+			while (top > bottom) {
+				N node = (N) nodes[--top];
+				int nodeDepth = depths[top];
+				result = visit(result, node, nodeDepth);
+				if (top + 2 > nodes.length) {
+					// reuse the slots of the forked entries first, grow if the stack is still full
+					if (bottom > 0) {
+						System.arraycopy(nodes, bottom, nodes, 0, top - bottom);
+						System.arraycopy(depths, bottom, depths, 0, top - bottom);
+						top -= bottom;
+						Arrays.fill(nodes, top, top + bottom, null);
+						bottom = 0;
+					}
+					if (top + 2 > nodes.length) {
+						nodes = Arrays.copyOf(nodes, nodes.length * 2);
+						depths = Arrays.copyOf(depths, depths.length * 2);
+					}
+				}
+				N right = accessor.right(node);
+				N left = accessor.left(node);
+				if (right != null) {
+					nodes[top] = right;
+					depths[top++] = nodeDepth + 1;
+				}
+				if (left != null) {
+					nodes[top] = left;
+					depths[top++] = nodeDepth + 1;
+				}
+				if (++visited >= threshold) {
+					if (!split) {
+						return NOT_DONE;
+					}
+					// Step: visited enough on this thread, hand the shallowest pending subtree to another worker
+					if (top - bottom > 1) {
+						SubtreeTask task = fork((N) nodes[bottom], depths[bottom]);
+						task.fork();
+						forked.add(task);
+						nodes[bottom++] = null;
+					}
+					visited = 0;
+				}
+			}
+			for (SubtreeTask task : forked) {
+				result = combine(result, task.join());
+			}
+			return result;
+		}
+	}
+}
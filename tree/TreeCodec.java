@@ -0,0 +1,287 @@
+package tree;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Compact binary codec of a binary tree, written to and read from NIO channels.
+ *
+ * The nodes are written in pre-order, every node is a single varint token holding the delta of its value
+ * to the previous value(zigzag encoded, small deltas of either sign stay small) and two structure bits:
+ *
+ *   token = zigzag(value - previousValue) << 2 | hasLeft << 1 | hasRight
+ *
+ *          50                 pre-order:  50     22     3      44     80
+ *         /  \                delta:      +50    -28    -19    +41    +36
+ *       22    80              bits:       11     11     00     00     00
+ *      /  \                   bytes:      2      2      2      2      2    (+ 5 bytes header)
+ *     3    44
+ *
+ * Stream: magic(4 bytes) | empty flag(1 byte) | token...
+ *
+ * Framing: there is no length prefix, the structure bits tell the decoder where the tree ends. The decoder
+ * reads the channel in big chunks though, so it usually reads past the end of the tree. read(channel, buffer)
+ * leaves those bytes in the caller's buffer: reuse the buffer to read the next tree(or other data) written
+ * behind it on the same channel. read(channel) drops them, use it only when the tree is the rest of the channel.
+ *
+ * The structure bits alone give the shape of the tree(and where the stream ends), so a tree is rebuilt
+ * in one linear pass without comparing any keys(a BST comes back exactly as it was written, same shape,
+ * no rebalancing). Encoding and decoding keep only the path to the current node(O(h) memory) and stream
+ * through a fixed buffer. Keys of dense trees(ids, timestamps) mostly take 1-2 bytes instead of 4.
+ *
+ * @param <N> node type
+ */
+public class TreeCodec<N> {
+
+	/**
+	 * Creates the nodes of a decoded tree.
+	 *
+	 * @param <N> node type
+	 */
+	public interface NodeFactory<N> {
+
+		N newNode(int value);
+
+		// called once both subtrees of node are decoded(post-order), left and right may be null
+		void link(N node, N left, N right);
+	}
+
+	private static final int MAGIC = 0x54524545; // "TREE"
+	private static final byte EMPTY = 0;
+	private static final byte NOT_EMPTY = 1;
+	private static final int HAS_LEFT = 2;
+	private static final int HAS_RIGHT = 1;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final NodeAccessor<N> accessor;
+	private final NodeFactory<N> factory;
+
+	public TreeCodec(NodeAccessor<N> accessor, NodeFactory<N> factory) {
+		this.accessor = accessor;
+		this.factory = factory;
+	}
+
+	/**
+	 * ENCODE: write the tree of root to channel.
+	 *
+	 * @param root
+	 * @param channel
+	 * @return number of nodes written
+	 * @throws IOException
+	 */
+	public long write(N root, WritableByteChannel channel) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		// Step-1: Header
+		buffer.putInt(MAGIC);
+		buffer.put(root == null ? EMPTY : NOT_EMPTY);
+		long count = 0;
+		Object[] stack = new Object[32];
+		int top = 0;
+		// Step-2: Write a token per node in pre-order, the right child waits on the stack
+		long previousValue = 0;
+		if (root != null) {
+			stack[top++] = root;
+		}
+		while (top > 0) {
+			@SuppressWarnings("unchecked")
+			N node = (N) stack[--top];
+			N left = accessor.left(node);
+			N right = accessor.right(node);
+			int value = accessor.value(node);
+			long delta = (long) value - previousValue;
+			long token = zigzag(delta) << 2 | (left != null ? HAS_LEFT : 0) | (right != null ? HAS_RIGHT : 0);
+			if (buffer.remaining() < 10) {
+				flush(buffer, channel);
+			}
+			putVarint(buffer, token);
+			previousValue = value;
+			count++;
+			stack = push(stack, top, right, left);
+			top += (right != null ? 1 : 0) + (left != null ? 1 : 0);
+		}
+		flush(buffer, channel);
+		return count;
+	}
+
+	// push the non null nodes first then second, second ends up on top
+	private static Object[] push(Object[] stack, int top, Object first, Object second) {
+		if (top + 2 > stack.length) {
+			stack = Arrays.copyOf(stack, stack.length * 2);
+		}
+		if (first != null) {
+			stack[top++] = first;
+		}
+		if (second != null) {
+			stack[top] = second;
+		}
+		return stack;
+	}
+
+	/**
+	 * DECODE: read a tree written by write from channel, the tree must be the rest of the channel. The bytes
+	 * read past the end of the tree are lost, see read(channel, buffer).
+	 *
+	 * @param channel
+	 * @return root of the decoded tree, null for an empty tree
+	 * @throws IOException if the stream is truncated or is not a tree stream
+	 */
+	public N read(ReadableByteChannel channel) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		buffer.flip();
+		return read(channel, buffer);
+	}
+
+	/**
+	 * Buffer for read(channel, buffer), empty and ready to be read from.
+	 *
+	 * @return
+	 */
+	public static ByteBuffer newReadBuffer() {
+		return ByteBuffer.allocate(BUFFER_SIZE).flip();
+	}
+
+	/**
+	 * DECODE: read a tree written by write from the bytes left in buffer, then from channel.
+	 *
+	 * Every node waits on the stack until its subtrees are decoded, then it is linked to them and attached
+	 * to its parent:
+	 *
+	 *   stack: 50 -> 22 -> 3      3 has no child, link(3), attach it as left of 22, read the right of 22
+	 *
+	 * The buffer is in read mode(its remaining bytes are the unread ones) before and after the call, when the
+	 * method returns it starts right behind the tree. Keep it for the next read of the same channel:
+	 *
+	 *   ByteBuffer buffer = TreeCodec.newReadBuffer();
+	 *   N first = codec.read(channel, buffer);
+	 *   N second = codec.read(channel, buffer);
+	 *
+	 * @param channel
+	 * @param buffer unread bytes of channel, at least 16 bytes of capacity
+	 * @return root of the decoded tree, null for an empty tree
+	 * @throws IOException if the stream is truncated or is not a tree stream
+	 */
+	@SuppressWarnings("unchecked")
+	public N read(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+		if (buffer.capacity() < 16) {
+			throw new IllegalArgumentException("buffer too small: " + buffer.capacity());
+		}
+		// Step-1: Header
+		fill(buffer, channel, 5);
+		if (buffer.getInt() != MAGIC) {
+			throw new IOException("not a tree stream");
+		}
+		if (buffer.get() == EMPTY) {
+			return null;
+		}
+		// Step-2: Decode the tokens, a frame is a node, its decoded children and its pending structure bits
+		Object[] nodes = new Object[32];
+		Object[] lefts = new Object[32];
+		Object[] rights = new Object[32];
+		int[] pending = new int[32];
+		int top = 0;
+		long previousValue = 0;
+		N root = null;
+		boolean readNext = true;
+		while (true) {
+			if (readNext) {
+				// Step-2.1: Read the next node and put it on top of the stack
+				long token = getVarint(buffer, channel);
+				previousValue += unzigzag(token >>> 2);
+				if (top == nodes.length) {
+					nodes = Arrays.copyOf(nodes, top * 2);
+					lefts = Arrays.copyOf(lefts, top * 2);
+					rights = Arrays.copyOf(rights, top * 2);
+					pending = Arrays.copyOf(pending, top * 2);
+				}
+				nodes[top] = factory.newNode((int) previousValue);
+				lefts[top] = null;
+				rights[top] = null;
+				pending[top] = (int) token & (HAS_LEFT | HAS_RIGHT);
+				top++;
+			}
+			// Step-2.2: The next token is the left child, else the right child of the top node
+			int frame = top - 1;
+			if (pending[frame] != 0) {
+				readNext = true;
+				continue;
+			}
+			// Step-2.3: Both subtrees are done, link the node and attach it to its parent
+			N node = (N) nodes[frame];
+			factory.link(node, (N) lefts[frame], (N) rights[frame]);
+			nodes[frame] = lefts[frame] = rights[frame] = null;
+			top--;
+			if (top == 0) {
+				root = node;
+				break;
+			}
+			int parentFrame = top - 1;
+			if ((pending[parentFrame] & HAS_LEFT) != 0) {
+				lefts[parentFrame] = node;
+				pending[parentFrame] &= ~HAS_LEFT;
+			} else {
+				rights[parentFrame] = node;
+				pending[parentFrame] &= ~HAS_RIGHT;
+			}
+			readNext = false;
+		}
+		return root;
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	// 7 bits per byte, the high bit marks that more bytes follow
+	private static void putVarint(ByteBuffer buffer, long value) {
+		while ((value & ~0x7FL) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	private static long getVarint(ByteBuffer buffer, ReadableByteChannel channel) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			if (!buffer.hasRemaining()) {
+				fill(buffer, channel, 1);
+			}
+			byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IOException("malformed varint");
+	}
+
+	private static void flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	// read from channel until at least bytes bytes are buffered, the bytes already buffered are kept
+	private static void fill(ByteBuffer buffer, ReadableByteChannel channel, int bytes) throws IOException {
+		if (buffer.remaining() >= bytes) {
+			return;
+		}
+		buffer.compact();
+		while (buffer.position() < bytes) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException("tree stream is truncated");
+			}
+		}
+		buffer.flip();
+	}
+}
@@ -0,0 +1,266 @@
+package tree;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Operation metrics of a tree: counters per operation, histograms of the depth reached and of the key
+ * comparisons per operation, a sampled latency histogram, and the current size and height.
+ *
+ * Hot path of an instrumented operation:
+ *
+ *   long start = metrics != null ? metrics.start() : 0;    // nanoTime only for ~1 of interval operations
+ *   ... the operation counts depth and comparisons in locals ...
+ *   if (metrics != null) metrics.record(TreeMetrics.SEARCH, start, depth, comparisons);
+ *
+ * A tree without metrics only pays the null checks. Disabled metrics pay one volatile read more, nothing is
+ * counted or timed. Size and height are read(JMX) from values the tree keeps or publishes, the JMX thread never
+ * walks the tree.
+ *
+ * The metrics are published as an MBean(tree:type=TreeMetrics,name=...) by register.
+ */
+public class TreeMetrics implements TreeMetricsMBean {
+
+	public static final int ADD = 0;
+	public static final int SEARCH = 1;
+	public static final int DELETE = 2;
+	public static final int TRAVERSE = 3;
+
+	private static final int DEFAULT_LATENCY_SAMPLE_INTERVAL = 64;
+
+	private final String name;
+	private final LongSupplier size;
+	private final IntSupplier height;
+	private volatile boolean enabled = true;
+	// power of 2 - 1, latency is measured for a random 1 of sampleMask + 1 operations
+	private volatile int sampleMask = DEFAULT_LATENCY_SAMPLE_INTERVAL - 1;
+
+	private final LongAdder[] operations = { new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder() };
+	private final LogLinearHistogram depth = new LogLinearHistogram();
+	private final LogLinearHistogram comparisons = new LogLinearHistogram();
+	private final LogLinearHistogram latency = new LogLinearHistogram();
+
+	private ObjectName objectName;
+
+	/**
+	 * @param name name of the MBean
+	 * @param size number of nodes of the tree, called when the size is read
+	 * @param height height of the tree, called when the height is read
+	 *
+	 * Both are called on a JMX thread while the tree may be changing, they must not walk the tree.
+	 */
+	public TreeMetrics(String name, LongSupplier size, IntSupplier height) {
+		this.name = name;
+		this.size = size;
+		this.height = height;
+	}
+
+	/**
+	 * Start of an operation. The sampling is a draw of the thread's own random generator, so the threads
+	 * sharing a tree don't write a shared counter.
+	 *
+	 * @return System.nanoTime() if the latency of this operation is sampled, 0 otherwise
+	 */
+	public long start() {
+		if (!enabled || (ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+			return 0;
+		}
+		return System.nanoTime();
+	}
+
+	/**
+	 * End of an operation.
+	 *
+	 * @param operation ADD, SEARCH, DELETE or TRAVERSE
+	 * @param start value returned by start
+	 * @param depthReached nodes on the path(levels for a traversal), negative if not known
+	 * @param keyComparisons negative if not known
+	 */
+	public void record(int operation, long start, int depthReached, int keyComparisons) {
+		if (!enabled) {
+			return;
+		}
+		operations[operation].increment();
+		if (depthReached >= 0) {
+			depth.record(depthReached);
+		}
+		if (keyComparisons >= 0) {
+			comparisons.record(keyComparisons);
+		}
+		if (start != 0) {
+			latency.record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Publish the metrics on the platform MBean server as tree:type=TreeMetrics,name=name.
+	 *
+	 * @return this
+	 * @throws IllegalStateException if an MBean of the same name is registered already
+	 */
+	public TreeMetrics register() {
+		try {
+			ObjectName objectName = new ObjectName("tree:type=TreeMetrics,name=" + ObjectName.quote(name));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+			this.objectName = objectName;
+			return this;
+		} catch (InstanceAlreadyExistsException e) {
+			throw new IllegalStateException("tree metrics already registered: " + name, e);
+		} catch (JMException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	// remove the MBean again, nothing happens if it is not registered
+	public void unregister() {
+		if (objectName == null) {
+			return;
+		}
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			server.unregisterMBean(objectName);
+		} catch (InstanceNotFoundException e) {
+			// unregistered by someone else
+		} catch (JMException e) {
+			throw new IllegalStateException(e);
+		}
+		objectName = null;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public int getLatencySampleInterval() {
+		return sampleMask + 1;
+	}
+
+	// rounded up to a power of 2, 1 times every operation
+	@Override
+	public void setLatencySampleInterval(int interval) {
+		if (interval < 1) {
+			throw new IllegalArgumentException("interval must be positive: " + interval);
+		}
+		sampleMask = interval == 1 ? 0 : Integer.highestOneBit(interval - 1) * 2 - 1;
+	}
+
+	@Override
+	public long getAdds() {
+		return operations[ADD].sum();
+	}
+
+	@Override
+	public long getSearches() {
+		return operations[SEARCH].sum();
+	}
+
+	@Override
+	public long getDeletes() {
+		return operations[DELETE].sum();
+	}
+
+	@Override
+	public long getTraversals() {
+		return operations[TRAVERSE].sum();
+	}
+
+	@Override
+	public long getSize() {
+		return size.getAsLong();
+	}
+
+	@Override
+	public int getHeight() {
+		return height.getAsInt();
+	}
+
+	@Override
+	public double getDepthMean() {
+		return depth.mean();
+	}
+
+	@Override
+	public long getDepthP50() {
+		return depth.percentile(50);
+	}
+
+	@Override
+	public long getDepthP99() {
+		return depth.percentile(99);
+	}
+
+	@Override
+	public long getDepthMax() {
+		return depth.max();
+	}
+
+	@Override
+	public double getComparisonsMean() {
+		return comparisons.mean();
+	}
+
+	@Override
+	public long getComparisonsP50() {
+		return comparisons.percentile(50);
+	}
+
+	@Override
+	public long getComparisonsP99() {
+		return comparisons.percentile(99);
+	}
+
+	@Override
+	public long getComparisonsMax() {
+		return comparisons.max();
+	}
+
+	@Override
+	public long getLatencySamples() {
+		return latency.count();
+	}
+
+	@Override
+	public long getLatencyP50Nanos() {
+		return latency.percentile(50);
+	}
+
+	@Override
+	public long getLatencyP99Nanos() {
+		return latency.percentile(99);
+	}
+
+	@Override
+	public long getLatencyMaxNanos() {
+		return latency.max();
+	}
+
+	@Override
+	public void reset() {
+		for (LongAdder counter : operations) {
+			counter.reset();
+		}
+		depth.reset();
+		comparisons.reset();
+		latency.reset();
+	}
+}
@@ -0,0 +1,53 @@
+package tree;
+
+/**
+ * JMX view of TreeMetrics, see TreeMetrics.register.
+ */
+public interface TreeMetricsMBean {
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	int getLatencySampleInterval();
+
+	void setLatencySampleInterval(int interval);
+
+	long getAdds();
+
+	long getSearches();
+
+	long getDeletes();
+
+	long getTraversals();
+
+	long getSize();
+
+	int getHeight();
+
+	double getDepthMean();
+
+	long getDepthP50();
+
+	long getDepthP99();
+
+	long getDepthMax();
+
+	double getComparisonsMean();
+
+	long getComparisonsP50();
+
+	long getComparisonsP99();
+
+	long getComparisonsMax();
+
+	long getLatencySamples();
+
+	long getLatencyP50Nanos();
+
+	long getLatencyP99Nanos();
+
+	long getLatencyMaxNanos();
+
+	void reset();
+}
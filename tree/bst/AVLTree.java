@@ -0,0 +1,549 @@
+package tree.bst;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import tree.TreeMetrics;
+
+/**
+ * An AVL Tree is a self-balancing Binary Search Tree, in which the heights of the left and right subtree
+ * of every node differ by at most one. After every insert and delete we walk back up the path that was
+ * changed and rotate the nodes which went out of balance, so the height of the tree stays O(log n) no
+ * matter in which order the keys arrive.
+ *
+ * balanceFactor(node) = height(node.left) - height(node.right), must stay in [-1, 1]
+ *
+ * Rotations:
+ *
+ *   Right rotation(left heavy):                 Left rotation(right heavy):
+ *
+ *            node                 left               node                    right
+ *           /    \               /    \             /    \                  /     \
+ *         left    T3    ==>     T1    node         T1    right      ==>    node     T3
+ *        /    \                      /    \             /     \           /    \
+ *       T1    T2                    T2    T3           T2     T3         T1    T2
+ *
+ *   Left-Right case: left rotate node.left, then right rotate node.
+ *   Right-Left case: right rotate node.right, then left rotate node.
+ *
+ * It keeps the BinarySearchTree API(add, addIterative, searchIterative, deleteNodeIterative...),
+ * only the insert and delete operations are overridden to rebalance the tree.
+ *
+ * Bulk set operations(union, intersection, difference) are built on two primitives, join and split,
+ * and run in O(m log(n/m + 1)) for trees of m <= n nodes instead of O(m log n) single inserts/searches.
+ *
+ * @author Prashant Singh
+ *
+ */
+public class AVLTree extends BinarySearchTree {
+
+	// an AVL tree of 2^31 nodes is never more than 45 levels deep, so the path always fits
+	private static final int MAX_HEIGHT = 64;
+	// below this many nodes(both trees together) a set operation runs on the current thread
+	private static final int PARALLEL_SET_THRESHOLD = 1 << 14;
+
+	private static final int UNION = 0;
+	private static final int INTERSECTION = 1;
+	private static final int DIFFERENCE = 2;
+
+	private TreeNode rotateRight(TreeNode node) {
+		TreeNode left = node.left;
+		node.left = left.right;
+		left.right = node;
+		updateNode(node);
+		updateNode(left);
+		return left;
+	}
+
+	private TreeNode rotateLeft(TreeNode node) {
+		TreeNode right = node.right;
+		node.right = right.left;
+		right.left = node;
+		updateNode(node);
+		updateNode(right);
+		return right;
+	}
+
+	/**
+	 * Refresh the height of node and rotate it if it went out of balance.
+	 *
+	 * @param node
+	 * @return root of the balanced subtree
+	 */
+	TreeNode balance(TreeNode node) {
+		updateNode(node);
+		int balanceFactor = height(node.left) - height(node.right);
+		// case-1: left heavy
+		if (balanceFactor > 1) {
+			// Left-Right case
+			if (height(node.left.left) < height(node.left.right)) {
+				node.left = rotateLeft(node.left);
+			}
+			return rotateRight(node);
+		}
+		// case-2: right heavy
+		if (balanceFactor < -1) {
+			// Right-Left case
+			if (height(node.right.right) < height(node.right.left)) {
+				node.right = rotateRight(node.right);
+			}
+			return rotateLeft(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Walk back up the recorded path, rebalance every node and re-link the rotated subtree to its parent.
+	 *
+	 * @param path nodes from the root to the modified node
+	 * @param depth number of nodes in the path
+	 * @return new root of the tree
+	 */
+	private TreeNode rebalancePath(TreeNode[] path, int depth) {
+		TreeNode subTree = null;
+		for (int i = depth - 1; i >= 0; i--) {
+			TreeNode node = path[i];
+			subTree = balance(node);
+			if (i > 0 && subTree != node) {
+				TreeNode parentNode = path[i - 1];
+				if (parentNode.left == node) {
+					parentNode.left = subTree;
+				} else {
+					parentNode.right = subTree;
+				}
+			}
+		}
+		return subTree;
+	}
+
+	@Override
+	public TreeNode addRecursive(TreeNode currentNode, int value) {
+		// Step-1: Base condition, insert the new leaf
+		if (currentNode == null) {
+			return new TreeNode(value);
+		}
+		// Step-2: Insert into left or right subtree, duplicates are ignored
+		if (value < currentNode.value) {
+			currentNode.left = addRecursive(currentNode.left, value);
+		} else if (value > currentNode.value) {
+			currentNode.right = addRecursive(currentNode.right, value);
+		} else {
+			return currentNode;
+		}
+		// Step-3: Rebalance on the way back, the recursion depth is bounded by the tree height(O(log n))
+		return balance(currentNode);
+	}
+
+	/**
+	 * Insert data into AVL tree using iterative approach.
+	 *
+	 * @param value
+	 */
+	@Override
+	public void addIterative(int value) {
+		long start = startMetrics();
+		// Step-1: Base condition, when value is insert from root
+		if (root == null) {
+			root = new TreeNode(value);
+			recordMetrics(TreeMetrics.ADD, start, 0, false);
+			return;
+		}
+		// Step-2: Traverse to the place of insertion and remember the path
+		TreeNode[] path = new TreeNode[MAX_HEIGHT];
+		int depth = 0;
+		TreeNode currentNode = root;
+		while (currentNode != null) {
+			if (value == currentNode.value) {
+				// value already exist
+				recordMetrics(TreeMetrics.ADD, start, depth + 1, true);
+				return;
+			}
+			path[depth++] = currentNode;
+			currentNode = value < currentNode.value ? currentNode.left : currentNode.right;
+		}
+		// Step-3: Link the new leaf to the last node of the path
+		TreeNode parentNode = path[depth - 1];
+		if (value < parentNode.value) {
+			parentNode.left = new TreeNode(value);
+		} else {
+			parentNode.right = new TreeNode(value);
+		}
+		// Step-4: Rebalance every node on the path
+		root = rebalancePath(path, depth);
+		recordMetrics(TreeMetrics.ADD, start, depth, false);
+	}
+
+	@Override
+	public TreeNode deleteNodeRecursive(TreeNode root, int deleteData) {
+		// Step-1: Base condition deleteData is not found
+		if (root == null) return null;
+		// Step-2: Search the node which matched the deleteData
+		if (deleteData < root.value) {
+			root.left = deleteNodeRecursive(root.left, deleteData);
+		} else if (deleteData > root.value) {
+			root.right = deleteNodeRecursive(root.right, deleteData);
+		} else {
+			// Step-3: Node with at most one child is replaced by its child
+			if (root.left == null || root.right == null) {
+				return root.left != null ? root.left : root.right;
+			}
+			// Step-4: Node with both child takes the value of its successor, then the successor is deleted
+			TreeNode minNode = root.right;
+			while (minNode.left != null) {
+				minNode = minNode.left;
+			}
+			root.value = minNode.value;
+			root.right = deleteNodeRecursive(root.right, minNode.value);
+		}
+		// Step-5: Rebalance on the way back
+		return balance(root);
+	}
+
+	@Override
+	public TreeNode deleteNodeIterative(TreeNode root, int deleteData, boolean promotePredecessor) {
+		long start = startMetrics();
+		// Step-1: Search the node which matched the deleteData and remember the path
+		TreeNode[] path = new TreeNode[MAX_HEIGHT];
+		int depth = 0;
+		TreeNode currentNode = root;
+		while (currentNode != null && currentNode.value != deleteData) {
+			path[depth++] = currentNode;
+			currentNode = deleteData < currentNode.value ? currentNode.left : currentNode.right;
+		}
+		// Step-2: Check if the deleteData is not found in AVL tree
+		if (currentNode == null) {
+			recordMetrics(TreeMetrics.DELETE, start, depth, false);
+			return root;
+		}
+		int foundDepth = depth + 1;
+		// Step-3: Node with both child, continue the same descent to the successor(minNode of rightChild),
+		// or the predecessor(maxNode of leftChild), move its value up and unlink it instead
+		TreeNode deleteNode = currentNode;
+		if (currentNode.left != null && currentNode.right != null) {
+			path[depth++] = currentNode;
+			if (promotePredecessor) {
+				deleteNode = currentNode.left;
+				while (deleteNode.right != null) {
+					path[depth++] = deleteNode;
+					deleteNode = deleteNode.right;
+				}
+			} else {
+				deleteNode = currentNode.right;
+				while (deleteNode.left != null) {
+					path[depth++] = deleteNode;
+					deleteNode = deleteNode.left;
+				}
+			}
+			currentNode.value = deleteNode.value;
+		}
+		// Step-4: deleteNode has at most one child now, replace it by its child
+		TreeNode childNode = deleteNode.left != null ? deleteNode.left : deleteNode.right;
+		if (depth == 0) {
+			recordMetrics(TreeMetrics.DELETE, start, foundDepth, true);
+			return childNode;
+		}
+		TreeNode parentNode = path[depth - 1];
+		if (parentNode.left == deleteNode) {
+			parentNode.left = childNode;
+		} else {
+			parentNode.right = childNode;
+		}
+		// Step-5: Rebalance every node on the path
+		TreeNode newRoot = rebalancePath(path, depth);
+		recordMetrics(TreeMetrics.DELETE, start, foundDepth, true);
+		return newRoot;
+	}
+
+	/**
+	 * BATCH INSERT: the batch is built into a balanced tree and merged with union, which keeps the tree
+	 * balanced and costs O(k log(n/k + 1)) for a batch of k keys.
+	 *
+	 * @param values
+	 * @return number of values inserted
+	 */
+	@Override
+	public int addAll(int[] values) {
+		int[] keys = sortedDistinct(values);
+		int sizeBefore = size(root);
+		root = union(root, buildBalanced(keys, 0, keys.length));
+		return size(root) - sizeBefore;
+	}
+
+	/**
+	 * BATCH DELETE: the batch is built into a balanced tree and removed with difference.
+	 *
+	 * @param values
+	 * @return number of values deleted
+	 */
+	@Override
+	public int removeAll(int[] values) {
+		int[] keys = sortedDistinct(values);
+		int sizeBefore = size(root);
+		root = difference(root, buildBalanced(keys, 0, keys.length));
+		return sizeBefore - size(root);
+	}
+
+	/**
+	 * JOIN: one balanced tree of left, node and right, every key of left must be smaller than node.value and
+	 * every key of right must be greater.
+	 *
+	 * If the heights differ by more than one, node goes down the right spine of the taller left tree(or the
+	 * left spine of the taller right tree) until it meets a subtree of about the height of the other tree,
+	 * takes it and the other tree as children and the spine is rebalanced on the way back:
+	 *
+	 *            L                               L
+	 *          /   \                            /   \
+	 *        ..     c      join(L, node, R)   ..    node      O(|height(L) - height(R)| + 1)
+	 *              / \     =============>           /    \
+	 *            ..   ..                            c      R
+	 *
+	 * @param left
+	 * @param node the node is reused, its children are replaced
+	 * @param right
+	 * @return root of the joined tree
+	 */
+	public TreeNode join(TreeNode left, TreeNode node, TreeNode right) {
+		if (height(left) > height(right) + 1) {
+			left.right = join(left.right, node, right);
+			return balance(left);
+		}
+		if (height(right) > height(left) + 1) {
+			right.left = join(left, node, right.left);
+			return balance(right);
+		}
+		node.left = left;
+		node.right = right;
+		updateNode(node);
+		return node;
+	}
+
+	/**
+	 * JOIN: same as join(left, node, right) without a middle node, the maxNode of left is used instead.
+	 *
+	 * @param left
+	 * @param right
+	 * @return root of the joined tree
+	 */
+	public TreeNode join(TreeNode left, TreeNode right) {
+		if (left == null) {
+			return right;
+		}
+		TreeNode[] parts = removeMax(left);
+		return join(parts[0], parts[1], right);
+	}
+
+	// {left without its maxNode, maxNode}
+	private TreeNode[] removeMax(TreeNode node) {
+		if (node.right == null) {
+			TreeNode[] parts = { node.left, node };
+			node.left = null;
+			return parts;
+		}
+		TreeNode[] parts = removeMax(node.right);
+		node.right = parts[0];
+		parts[0] = balance(node);
+		return parts;
+	}
+
+	/**
+	 * SPLIT: cut the tree of root at key into the keys smaller and the keys greater than key.
+	 *
+	 * The search path of key is cut into pieces, the subtrees hanging left of the path are joined into the
+	 * smaller tree, the ones hanging right of it into the greater tree, O(log n) in total.
+	 *
+	 * The tree of root is consumed, its nodes are reused by the two parts.
+	 *
+	 * @param root
+	 * @param key
+	 * @return {tree of the keys < key, node of key(without children) or null, tree of the keys > key}
+	 */
+	public TreeNode[] split(TreeNode root, int key) {
+		// Step-1: Base condition key is not found
+		if (root == null) {
+			return new TreeNode[3];
+		}
+		TreeNode left = root.left;
+		TreeNode right = root.right;
+		// Step-2: key is the root, its subtrees are the two parts
+		if (key == root.value) {
+			root.left = null;
+			root.right = null;
+			updateNode(root);
+			return new TreeNode[] { left, root, right };
+		}
+		// Step-3: Split the subtree of key and join the other subtree back to the matching part
+		TreeNode[] parts;
+		if (key < root.value) {
+			parts = split(left, key);
+			parts[2] = join(parts[2], root, right);
+		} else {
+			parts = split(right, key);
+			parts[0] = join(left, root, parts[0]);
+		}
+		return parts;
+	}
+
+	/**
+	 * UNION: tree of the keys found in either tree.
+	 *
+	 * Both trees are consumed(their nodes are reused by the result), the result is assigned like the
+	 * result of deleteNodeIterative: avl.root = avl.union(avl.root, other.root).
+	 *
+	 * @param a
+	 * @param b
+	 * @return root of the union
+	 */
+	public TreeNode union(TreeNode a, TreeNode b) {
+		return union(a, b, false);
+	}
+
+	/**
+	 * UNION: same as union(a, b), the halves of large trees are processed in parallel on the common
+	 * ForkJoinPool when parallel is true.
+	 *
+	 * @param a
+	 * @param b
+	 * @param parallel
+	 * @return root of the union
+	 */
+	public TreeNode union(TreeNode a, TreeNode b, boolean parallel) {
+		return setOperation(UNION, a, b, parallel);
+	}
+
+	/**
+	 * INTERSECTION: tree of the keys found in both trees, both trees are consumed.
+	 *
+	 * @param a
+	 * @param b
+	 * @return root of the intersection
+	 */
+	public TreeNode intersection(TreeNode a, TreeNode b) {
+		return intersection(a, b, false);
+	}
+
+	public TreeNode intersection(TreeNode a, TreeNode b, boolean parallel) {
+		return setOperation(INTERSECTION, a, b, parallel);
+	}
+
+	/**
+	 * DIFFERENCE: tree of the keys of a which are not found in b, both trees are consumed.
+	 *
+	 * @param a
+	 * @param b
+	 * @return root of the difference
+	 */
+	public TreeNode difference(TreeNode a, TreeNode b) {
+		return difference(a, b, false);
+	}
+
+	public TreeNode difference(TreeNode a, TreeNode b, boolean parallel) {
+		return setOperation(DIFFERENCE, a, b, parallel);
+	}
+
+	private TreeNode setOperation(int operation, TreeNode a, TreeNode b, boolean parallel) {
+		if (parallel && size(a) + size(b) > PARALLEL_SET_THRESHOLD) {
+			return ForkJoinPool.commonPool().invoke(new SetOperationTask(operation, a, b));
+		}
+		return combine(operation, a, b, false);
+	}
+
+	/**
+	 * Divide and conquer on the root of one tree(pivot):
+	 *
+	 *   Step-1: split the other tree at pivot.value          other ==> (smaller, found, greater)
+	 *   Step-2: combine pivot.left with smaller and pivot.right with greater, independently(in parallel)
+	 *   Step-3: join the two results, through the pivot node if pivot.value belongs to the result
+	 *
+	 * union and intersection pivot on a, difference pivots on b(the keys of a must be split by b).
+	 */
+	private TreeNode combine(int operation, TreeNode a, TreeNode b, boolean parallel) {
+		// Step-0: Base conditions, one of the trees is empty
+		if (a == null || b == null) {
+			switch (operation) {
+			case UNION:
+				return a != null ? a : b;
+			case INTERSECTION:
+				return null;
+			default:
+				return a;
+			}
+		}
+		// Step-1: Split the other tree at the pivot
+		TreeNode pivot = operation == DIFFERENCE ? b : a;
+		TreeNode[] parts = split(operation == DIFFERENCE ? a : b, pivot.value);
+		TreeNode pivotLeft = pivot.left;
+		TreeNode pivotRight = pivot.right;
+		TreeNode firstLeft = operation == DIFFERENCE ? parts[0] : pivotLeft;
+		TreeNode secondLeft = operation == DIFFERENCE ? pivotLeft : parts[0];
+		TreeNode firstRight = operation == DIFFERENCE ? parts[2] : pivotRight;
+		TreeNode secondRight = operation == DIFFERENCE ? pivotRight : parts[2];
+		// Step-2: Combine the left and the right halves, the halves share no node
+		TreeNode left;
+		TreeNode right;
+		if (parallel && size(a) + size(b) > PARALLEL_SET_THRESHOLD) {
+			SetOperationTask leftTask = new SetOperationTask(operation, firstLeft, secondLeft);
+			leftTask.fork();
+			right = combine(operation, firstRight, secondRight, true);
+			left = leftTask.join();
+		} else {
+			left = combine(operation, firstLeft, secondLeft, false);
+			right = combine(operation, firstRight, secondRight, false);
+		}
+		// Step-3: Join the halves
+		if (operation == UNION || operation == INTERSECTION && parts[1] != null) {
+			return join(left, pivot, right);
+		}
+		return join(left, right);
+	}
+
+	// fork/join task combining two trees, it forks the left halves as long as the trees are large
+	private class SetOperationTask extends RecursiveTask<TreeNode> {
+		private static final long serialVersionUID = 1L;
+		private final int operation;
+		private final TreeNode a;
+		private final TreeNode b;
+
+		SetOperationTask(int operation, TreeNode a, TreeNode b) {
+			this.operation = operation;
+			this.a = a;
+			this.b = b;
+		}
+
+		@Override
+		protected TreeNode compute() {
+			return combine(operation, a, b, true);
+		}
+	}
+
+	// runner
+	public static void main(String[] args) {
+		AVLTree avl = new AVLTree();
+
+		// insert keys in ascending order, plain BST would become a linked list
+		for (int input = 1; input <= 1_000_000; input++) {
+			avl.addIterative(input);
+		}
+		System.out.println("height after 1000000 ascending inserts: " + avl.height(avl.root));
+
+		// search
+		System.out.println(avl.searchIterative(avl.root, 777_777).value);
+
+		// delete
+		for (int input = 1; input <= 999_990; input++) {
+			avl.root = avl.deleteNodeIterative(avl.root, input);
+		}
+		List<Integer> inOrderTraversals = avl.inOrderTraversal(avl.root);
+		System.out.println(inOrderTraversals + " height: " + avl.height(avl.root));
+
+		// set operations
+		AVLTree evens = new AVLTree();
+		AVLTree threes = new AVLTree();
+		for (int input = 0; input < 30; input++) {
+			evens.addIterative(input * 2);
+			threes.addIterative(input * 3);
+		}
+		evens.root = evens.intersection(evens.root, threes.root);
+		System.out.println(evens.inOrderTraversal(evens.root) + " height: " + evens.height(evens.root));
+	}
+}
@@ -0,0 +1,296 @@
+package tree.bst;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary Search Tree that stores its nodes as a struct-of-arrays instead of one TreeNode object per key.
+ *
+ * A node is just an index(slot) into three parallel int arrays, the children are slots as well:
+ *
+ *   slot:    0    1    2    3    4
+ *   value: [50] [22] [ 3] [44] [ - ]
+ *   left:  [ 1] [ 2] [-1] [-1] [ -1]     NIL(-1) means no child
+ *   right: [-1] [ 3] [-1] [-1] [ -1]
+ *
+ *                50(0)
+ *               /
+ *            22(1)
+ *           /    \
+ *        3(2)    44(3)
+ *
+ * Every key costs 12 bytes(value + left + right) with no object header, no references for the GC to trace
+ * and neighbouring nodes sit next to each other in memory. Deleted slots are chained into a free list
+ * through the left array and are reused by the next insert.
+ *
+ * @author Prashant Singh
+ *
+ */
+public class ArrayBinarySearchTree {
+
+	static final int NIL = -1;
+	private static final int DEFAULT_CAPACITY = 16;
+
+	int[] value;
+	int[] left;
+	int[] right;
+
+	// slot of the root node
+	int root = NIL;
+	// head of the free slot list, chained through left[]
+	private int freeHead = NIL;
+	// slots handed out so far, slots above this were never used
+	private int used;
+	private int size;
+
+	public ArrayBinarySearchTree() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public ArrayBinarySearchTree(int initialCapacity) {
+		int capacity = Math.max(initialCapacity, 1);
+		value = new int[capacity];
+		left = new int[capacity];
+		right = new int[capacity];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private int allocate(int data) {
+		int slot;
+		if (freeHead != NIL) {
+			// reuse a deleted slot
+			slot = freeHead;
+			freeHead = left[slot];
+		} else {
+			if (used == value.length) {
+				int capacity = value.length * 2;
+				value = Arrays.copyOf(value, capacity);
+				left = Arrays.copyOf(left, capacity);
+				right = Arrays.copyOf(right, capacity);
+			}
+			slot = used++;
+		}
+		value[slot] = data;
+		left[slot] = NIL;
+		right[slot] = NIL;
+		size++;
+		return slot;
+	}
+
+	private void release(int slot) {
+		left[slot] = freeHead;
+		freeHead = slot;
+		size--;
+	}
+
+	/**
+	 * Insert data into BST, duplicates are ignored.
+	 *
+	 * @param data
+	 * @return true if the data was inserted
+	 */
+	public boolean add(int data) {
+		// Step-1: Base condition, when value is insert from root
+		if (root == NIL) {
+			root = allocate(data);
+			return true;
+		}
+		// Step-2: Traverse to the correct parent of the new node
+		int parentNode = root;
+		while (true) {
+			if (data == value[parentNode]) {
+				// value already exist
+				return false;
+			}
+			int childNode = data < value[parentNode] ? left[parentNode] : right[parentNode];
+			if (childNode == NIL) {
+				break;
+			}
+			parentNode = childNode;
+		}
+		// Step-3: Link the new slot to left or right of the parent
+		int newNode = allocate(data);
+		if (data < value[parentNode]) {
+			left[parentNode] = newNode;
+		} else {
+			right[parentNode] = newNode;
+		}
+		return true;
+	}
+
+	/**
+	 * Search data in BST.
+	 *
+	 * @param searchData
+	 * @return slot of the node holding searchData, or NIL if not found
+	 */
+	public int search(int searchData) {
+		int currentNode = root;
+		while (currentNode != NIL) {
+			int currentValue = value[currentNode];
+			if (searchData == currentValue) {
+				return currentNode;
+			}
+			currentNode = searchData < currentValue ? left[currentNode] : right[currentNode];
+		}
+		return NIL;
+	}
+
+	public boolean contains(int searchData) {
+		return search(searchData) != NIL;
+	}
+
+	/**
+	 * Delete data from BST in a single descent.
+	 *
+	 * @param deleteData
+	 * @return true if the data was found and deleted
+	 */
+	public boolean delete(int deleteData) {
+		// Step-1: Search the node which matched the deleteData and set it's parentNode
+		int currentNode = root;
+		int parentNode = NIL;
+		while (currentNode != NIL && value[currentNode] != deleteData) {
+			parentNode = currentNode;
+			currentNode = deleteData < value[currentNode] ? left[currentNode] : right[currentNode];
+		}
+		// Step-2: Check if the deleteData is not found in BST
+		if (currentNode == NIL) {
+			return false;
+		}
+		// Step-3: Node with both child, copy the successor(minNode of rightChild) value and delete the successor
+		if (left[currentNode] != NIL && right[currentNode] != NIL) {
+			int successorParent = currentNode;
+			int successor = right[currentNode];
+			while (left[successor] != NIL) {
+				successorParent = successor;
+				successor = left[successor];
+			}
+			value[currentNode] = value[successor];
+			parentNode = successorParent;
+			currentNode = successor;
+		}
+		// Step-4: currentNode has at most one child, link the child to the parentNode
+		int childNode = left[currentNode] != NIL ? left[currentNode] : right[currentNode];
+		if (parentNode == NIL) {
+			root = childNode;
+		} else if (left[parentNode] == currentNode) {
+			left[parentNode] = childNode;
+		} else {
+			right[parentNode] = childNode;
+		}
+		release(currentNode);
+		return true;
+	}
+
+	/**
+	 * TRAVERSAL: IN-ORDER-TRAVERSAL(LDR), iterative using an int stack of slots.
+	 *
+	 * @return
+	 */
+	public List<Integer> inOrderTraversal() {
+		List<Integer> inOrderTraverseVal = new ArrayList<Integer>(size);
+		int[] stack = new int[16];
+		int top = 0;
+		int currentNode = root;
+		while (currentNode != NIL || top > 0) {
+			// go left as far as possible
+			while (currentNode != NIL) {
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, top * 2);
+				}
+				stack[top++] = currentNode;
+				currentNode = left[currentNode];
+			}
+			currentNode = stack[--top];
+			inOrderTraverseVal.add(value[currentNode]);
+			currentNode = right[currentNode];
+		}
+		return inOrderTraverseVal;
+	}
+
+	/**
+	 * TRAVERSAL: PRE-ORDER-TRAVERSAL(DLR), iterative using an int stack of slots.
+	 *
+	 * @return
+	 */
+	public List<Integer> preOrderTraversal() {
+		List<Integer> preOrderTraverseVal = new ArrayList<Integer>(size);
+		if (root == NIL) {
+			return preOrderTraverseVal;
+		}
+		int[] stack = new int[16];
+		int top = 0;
+		stack[top++] = root;
+		while (top > 0) {
+			int currentNode = stack[--top];
+			preOrderTraverseVal.add(value[currentNode]);
+			if (top + 2 > stack.length) {
+				stack = Arrays.copyOf(stack, stack.length * 2);
+			}
+			// push right first, so that left is processed first
+			if (right[currentNode] != NIL) stack[top++] = right[currentNode];
+			if (left[currentNode] != NIL) stack[top++] = left[currentNode];
+		}
+		return preOrderTraverseVal;
+	}
+
+	/**
+	 * TRAVERSAL: POST-ORDER-TRAVERSAL(LRD), iterative using an int stack of slots.
+	 *
+	 * @return
+	 */
+	public List<Integer> postOrderTraversal() {
+		List<Integer> postOrderTraverseVal = new ArrayList<Integer>(size);
+		int[] stack = new int[16];
+		int top = 0;
+		int currentNode = root;
+		int lastVisited = NIL;
+		while (currentNode != NIL || top > 0) {
+			while (currentNode != NIL) {
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, top * 2);
+				}
+				stack[top++] = currentNode;
+				currentNode = left[currentNode];
+			}
+			int peekNode = stack[top - 1];
+			// visit the right subtree first if it is not done yet
+			if (right[peekNode] != NIL && right[peekNode] != lastVisited) {
+				currentNode = right[peekNode];
+			} else {
+				postOrderTraverseVal.add(value[peekNode]);
+				lastVisited = stack[--top];
+			}
+		}
+		return postOrderTraverseVal;
+	}
+
+	// runner
+	public static void main(String[] args) {
+		ArrayBinarySearchTree bst = new ArrayBinarySearchTree();
+
+		// insert operation
+		int inputs[] = { 50, 22, 3, 6, 44, 9 };
+		for (int input : inputs) {
+			bst.add(input);
+		}
+
+		// traverse
+		System.out.println(bst.inOrderTraversal());
+		System.out.println(bst.preOrderTraversal());
+		System.out.println(bst.postOrderTraversal());
+
+		// search
+		System.out.println(bst.contains(44) + " " + bst.contains(45));
+
+		// delete, the freed slot is reused by the next insert
+		bst.delete(22);
+		bst.add(23);
+		System.out.println(bst.inOrderTraversal() + " size: " + bst.size());
+	}
+}
@@ -0,0 +1,380 @@
+package tree.bst;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * B+ Tree of int keys, a high fanout alternative to the Binary Search Tree.
+ *
+ * A binary tree pays roughly one cache miss per level(~24 levels for 16M keys). A B+ tree keeps up to
+ * maxKeys sorted keys in one int[] per node, so one node spans a few cache lines and the tree is only
+ * log(maxKeys)(n) levels deep. Inside a node the key is found by binary search over the int[].
+ *
+ *                          [ 30 | 60 ]                      <- inner node: keys route the search
+ *                         /     |     \
+ *                        /      |      \
+ *      [ 5 | 12 | 22 ] -> [ 30 | 41 ] -> [ 60 | 75 | 90 ]  <- leaf nodes: hold the keys, linked for in-order scan
+ *
+ * Inner node: children[i] holds the keys k with keys[i-1] <= k < keys[i].
+ * Every node except the root holds between maxKeys/2 and maxKeys keys.
+ *
+ * It exposes the same add/search/delete/in-order operations as BinarySearchTree.
+ *
+ * @author Prashant Singh
+ *
+ */
+public class BPlusTree {
+
+	// 64 keys = 256 bytes = 4 cache lines per node
+	private static final int DEFAULT_MAX_KEYS = 64;
+	private static final int MAX_HEIGHT = 32;
+
+	static abstract class Node {
+		// one spare slot, a node is allowed to overflow by one key before it is split
+		final int[] keys;
+		int count;
+
+		Node(int maxKeys) {
+			keys = new int[maxKeys + 1];
+		}
+	}
+
+	static final class LeafNode extends Node {
+		LeafNode next;
+
+		LeafNode(int maxKeys) {
+			super(maxKeys);
+		}
+	}
+
+	static final class InnerNode extends Node {
+		final Node[] children;
+
+		InnerNode(int maxKeys) {
+			super(maxKeys);
+			children = new Node[maxKeys + 2];
+		}
+	}
+
+	private final int maxKeys;
+	private final int minKeys;
+	Node root;
+	private int size;
+
+	public BPlusTree() {
+		this(DEFAULT_MAX_KEYS);
+	}
+
+	/**
+	 * @param maxKeys keys per node, size it to a few cache lines(16 keys = 1 line) or a page(1024 keys = 4KB)
+	 */
+	public BPlusTree(int maxKeys) {
+		if (maxKeys < 3) {
+			throw new IllegalArgumentException("maxKeys must be at least 3: " + maxKeys);
+		}
+		this.maxKeys = maxKeys;
+		this.minKeys = maxKeys / 2;
+		root = new LeafNode(maxKeys);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	// index of the first key greater than key
+	private static int upperBound(int[] keys, int count, int key) {
+		int low = 0, high = count;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (keys[mid] <= key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	// index of key, or -(insertion point) - 1 if not present
+	private static int indexOf(int[] keys, int count, int key) {
+		int low = 0, high = count - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (keys[mid] < key) {
+				low = mid + 1;
+			} else if (keys[mid] > key) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Search data in the tree.
+	 *
+	 * @param searchData
+	 * @return true if the data is present
+	 */
+	public boolean search(int searchData) {
+		Node currentNode = root;
+		while (currentNode instanceof InnerNode) {
+			currentNode = ((InnerNode) currentNode).children[upperBound(currentNode.keys, currentNode.count, searchData)];
+		}
+		return indexOf(currentNode.keys, currentNode.count, searchData) >= 0;
+	}
+
+	/**
+	 * Insert data into the tree, duplicates are ignored.
+	 *
+	 * @param data
+	 * @return true if the data was inserted
+	 */
+	public boolean add(int data) {
+		// Step-1: Descend to the leaf and remember the path with the child index taken at every level
+		InnerNode[] path = new InnerNode[MAX_HEIGHT];
+		int[] childIndex = new int[MAX_HEIGHT];
+		int depth = 0;
+		Node currentNode = root;
+		while (currentNode instanceof InnerNode) {
+			InnerNode innerNode = (InnerNode) currentNode;
+			int index = upperBound(innerNode.keys, innerNode.count, data);
+			path[depth] = innerNode;
+			childIndex[depth++] = index;
+			currentNode = innerNode.children[index];
+		}
+		// Step-2: Insert into the leaf keeping it sorted
+		LeafNode leaf = (LeafNode) currentNode;
+		int position = indexOf(leaf.keys, leaf.count, data);
+		if (position >= 0) {
+			// value already exist
+			return false;
+		}
+		position = -position - 1;
+		System.arraycopy(leaf.keys, position, leaf.keys, position + 1, leaf.count - position);
+		leaf.keys[position] = data;
+		leaf.count++;
+		size++;
+		// Step-3: Split the overflowing nodes bottom-up, every split pushes a separator into the parent
+		Node node = leaf;
+		while (node.count > maxKeys) {
+			int separator;
+			Node sibling;
+			if (node instanceof LeafNode) {
+				// leaf split: right half moves to the new leaf, its first key is copied up
+				LeafNode leftLeaf = (LeafNode) node;
+				LeafNode rightLeaf = new LeafNode(maxKeys);
+				int half = leftLeaf.count / 2;
+				rightLeaf.count = leftLeaf.count - half;
+				System.arraycopy(leftLeaf.keys, half, rightLeaf.keys, 0, rightLeaf.count);
+				leftLeaf.count = half;
+				rightLeaf.next = leftLeaf.next;
+				leftLeaf.next = rightLeaf;
+				separator = rightLeaf.keys[0];
+				sibling = rightLeaf;
+			} else {
+				// inner split: the middle key moves up, keys and children right of it move to the new node
+				InnerNode leftInner = (InnerNode) node;
+				InnerNode rightInner = new InnerNode(maxKeys);
+				int mid = leftInner.count / 2;
+				separator = leftInner.keys[mid];
+				rightInner.count = leftInner.count - mid - 1;
+				System.arraycopy(leftInner.keys, mid + 1, rightInner.keys, 0, rightInner.count);
+				System.arraycopy(leftInner.children, mid + 1, rightInner.children, 0, rightInner.count + 1);
+				for (int i = mid + 1; i <= leftInner.count; i++) {
+					leftInner.children[i] = null;
+				}
+				leftInner.count = mid;
+				sibling = rightInner;
+			}
+			if (depth == 0) {
+				// root was split, the tree grows one level
+				InnerNode newRoot = new InnerNode(maxKeys);
+				newRoot.keys[0] = separator;
+				newRoot.children[0] = node;
+				newRoot.children[1] = sibling;
+				newRoot.count = 1;
+				root = newRoot;
+				break;
+			}
+			InnerNode parentNode = path[--depth];
+			int index = childIndex[depth];
+			System.arraycopy(parentNode.keys, index, parentNode.keys, index + 1, parentNode.count - index);
+			System.arraycopy(parentNode.children, index + 1, parentNode.children, index + 2, parentNode.count - index);
+			parentNode.keys[index] = separator;
+			parentNode.children[index + 1] = sibling;
+			parentNode.count++;
+			node = parentNode;
+		}
+		return true;
+	}
+
+	/**
+	 * Delete data from the tree.
+	 *
+	 * @param deleteData
+	 * @return true if the data was found and deleted
+	 */
+	public boolean delete(int deleteData) {
+		// Step-1: Descend to the leaf and remember the path
+		InnerNode[] path = new InnerNode[MAX_HEIGHT];
+		int[] childIndex = new int[MAX_HEIGHT];
+		int depth = 0;
+		Node currentNode = root;
+		while (currentNode instanceof InnerNode) {
+			InnerNode innerNode = (InnerNode) currentNode;
+			int index = upperBound(innerNode.keys, innerNode.count, deleteData);
+			path[depth] = innerNode;
+			childIndex[depth++] = index;
+			currentNode = innerNode.children[index];
+		}
+		// Step-2: Remove the key from the leaf
+		int position = indexOf(currentNode.keys, currentNode.count, deleteData);
+		if (position < 0) {
+			return false;
+		}
+		System.arraycopy(currentNode.keys, position + 1, currentNode.keys, position, currentNode.count - position - 1);
+		currentNode.count--;
+		size--;
+		// Step-3: Fix the underflowing nodes bottom-up by borrowing from or merging with a sibling
+		Node node = currentNode;
+		while (depth > 0 && node.count < minKeys) {
+			InnerNode parentNode = path[--depth];
+			int index = childIndex[depth];
+			Node leftSibling = index > 0 ? parentNode.children[index - 1] : null;
+			Node rightSibling = index < parentNode.count ? parentNode.children[index + 1] : null;
+			if (leftSibling != null && leftSibling.count > minKeys) {
+				borrowFromLeft(parentNode, index, leftSibling, node);
+				return true;
+			}
+			if (rightSibling != null && rightSibling.count > minKeys) {
+				borrowFromRight(parentNode, index, node, rightSibling);
+				return true;
+			}
+			if (leftSibling != null) {
+				merge(parentNode, index - 1, leftSibling, node);
+			} else {
+				merge(parentNode, index, node, rightSibling);
+			}
+			node = parentNode;
+		}
+		// Step-4: Root inner node without keys, the tree shrinks one level
+		if (root instanceof InnerNode && root.count == 0) {
+			root = ((InnerNode) root).children[0];
+		}
+		return true;
+	}
+
+	private void borrowFromLeft(InnerNode parentNode, int index, Node leftSibling, Node node) {
+		System.arraycopy(node.keys, 0, node.keys, 1, node.count);
+		if (node instanceof LeafNode) {
+			// move the last key of the left leaf, it becomes the new separator
+			node.keys[0] = leftSibling.keys[leftSibling.count - 1];
+			parentNode.keys[index - 1] = node.keys[0];
+		} else {
+			// rotate through the parent: separator comes down, last key of the sibling goes up
+			InnerNode innerNode = (InnerNode) node;
+			InnerNode leftInner = (InnerNode) leftSibling;
+			System.arraycopy(innerNode.children, 0, innerNode.children, 1, innerNode.count + 1);
+			innerNode.keys[0] = parentNode.keys[index - 1];
+			innerNode.children[0] = leftInner.children[leftInner.count];
+			leftInner.children[leftInner.count] = null;
+			parentNode.keys[index - 1] = leftInner.keys[leftInner.count - 1];
+		}
+		node.count++;
+		leftSibling.count--;
+	}
+
+	private void borrowFromRight(InnerNode parentNode, int index, Node node, Node rightSibling) {
+		if (node instanceof LeafNode) {
+			// move the first key of the right leaf, its new first key becomes the separator
+			node.keys[node.count] = rightSibling.keys[0];
+			System.arraycopy(rightSibling.keys, 1, rightSibling.keys, 0, rightSibling.count - 1);
+			parentNode.keys[index] = rightSibling.keys[0];
+		} else {
+			// rotate through the parent: separator comes down, first key of the sibling goes up
+			InnerNode innerNode = (InnerNode) node;
+			InnerNode rightInner = (InnerNode) rightSibling;
+			innerNode.keys[innerNode.count] = parentNode.keys[index];
+			innerNode.children[innerNode.count + 1] = rightInner.children[0];
+			parentNode.keys[index] = rightInner.keys[0];
+			System.arraycopy(rightInner.keys, 1, rightInner.keys, 0, rightInner.count - 1);
+			System.arraycopy(rightInner.children, 1, rightInner.children, 0, rightInner.count);
+			rightInner.children[rightInner.count] = null;
+		}
+		node.count++;
+		rightSibling.count--;
+	}
+
+	// merge right into left, they are children[separatorIndex] and children[separatorIndex + 1] of parentNode
+	private void merge(InnerNode parentNode, int separatorIndex, Node left, Node right) {
+		if (left instanceof LeafNode) {
+			System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+			left.count += right.count;
+			((LeafNode) left).next = ((LeafNode) right).next;
+		} else {
+			// the separator comes down between the keys of both nodes
+			InnerNode leftInner = (InnerNode) left;
+			InnerNode rightInner = (InnerNode) right;
+			leftInner.keys[leftInner.count] = parentNode.keys[separatorIndex];
+			System.arraycopy(rightInner.keys, 0, leftInner.keys, leftInner.count + 1, rightInner.count);
+			System.arraycopy(rightInner.children, 0, leftInner.children, leftInner.count + 1, rightInner.count + 1);
+			leftInner.count += rightInner.count + 1;
+		}
+		// remove the separator and the right child from the parent
+		System.arraycopy(parentNode.keys, separatorIndex + 1, parentNode.keys, separatorIndex,
+				parentNode.count - separatorIndex - 1);
+		System.arraycopy(parentNode.children, separatorIndex + 2, parentNode.children, separatorIndex + 1,
+				parentNode.count - separatorIndex - 1);
+		parentNode.children[parentNode.count] = null;
+		parentNode.count--;
+	}
+
+	/**
+	 * TRAVERSAL: IN-ORDER-TRAVERSAL, walks the linked leaves from left to right.
+	 *
+	 * @return
+	 */
+	public List<Integer> inOrderTraversal() {
+		List<Integer> inOrderTraverseVal = new ArrayList<Integer>(size);
+		Node currentNode = root;
+		while (currentNode instanceof InnerNode) {
+			currentNode = ((InnerNode) currentNode).children[0];
+		}
+		for (LeafNode leaf = (LeafNode) currentNode; leaf != null; leaf = leaf.next) {
+			for (int i = 0; i < leaf.count; i++) {
+				inOrderTraverseVal.add(leaf.keys[i]);
+			}
+		}
+		return inOrderTraverseVal;
+	}
+
+	public int height() {
+		int height = 1;
+		for (Node currentNode = root; currentNode instanceof InnerNode; currentNode = ((InnerNode) currentNode).children[0]) {
+			height++;
+		}
+		return height;
+	}
+
+	// runner
+	public static void main(String[] args) {
+		BPlusTree tree = new BPlusTree();
+
+		// insert operation
+		for (int input = 0; input < 16_000_000; input++) {
+			tree.add(input);
+		}
+		System.out.println("size: " + tree.size() + " height: " + tree.height());
+
+		// search
+		System.out.println(tree.search(12_345_678) + " " + tree.search(-1));
+
+		// delete
+		for (int input = 10; input < 16_000_000; input++) {
+			tree.delete(input);
+		}
+		System.out.println(tree.inOrderTraversal() + " height: " + tree.height());
+	}
+}
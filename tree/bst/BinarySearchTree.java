@@ -1,7 +1,26 @@
 package tree.bst;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import tree.EytzingerTree;
+import tree.NodeAccessor;
+import tree.TreeCodec;
+import tree.TreeMetrics;
 
 
 /**
@@ -33,11 +52,17 @@ public class BinarySearchTree {
 		int value;
 		TreeNode left;
 		TreeNode right;
+		// height of the subtree rooted at this node, kept up to date by every operation like size(see updateNode)
+		int height;
+		// number of nodes in the subtree rooted at this node, used by rank/select
+		int size;
 
 		public TreeNode(int value) {
 			this.value = value;
 			left = null;
 			right = null;
+			height = 1;
+			size = 1;
 		}
 
 	}
@@ -45,6 +70,46 @@ public class BinarySearchTree {
 	// initialize the root with null
 	public TreeNode root;
 
+	// gives the generic tree algorithms access to the nodes of this tree
+	static final NodeAccessor<TreeNode> NODE_ACCESSOR = new NodeAccessor<TreeNode>() {
+		@Override
+		public TreeNode left(TreeNode node) {
+			return node.left;
+		}
+
+		@Override
+		public TreeNode right(TreeNode node) {
+			return node.right;
+		}
+
+		@Override
+		public int value(TreeNode node) {
+			return node.value;
+		}
+	};
+
+	// null until enableMetrics is called, the operations then only pay a null check
+	private TreeMetrics metrics;
+
+	// reusable path from the root down to the node of the current add/delete, see pushPath
+	TreeNode[] path = new TreeNode[64];
+
+	// binary codec of this tree, the decoded nodes get their height and size from their children
+	private final TreeCodec<TreeNode> codec = new TreeCodec<TreeNode>(NODE_ACCESSOR, new TreeCodec.NodeFactory<TreeNode>() {
+		@Override
+		public TreeNode newNode(int value) {
+			return new TreeNode(value);
+		}
+
+		@Override
+		public void link(TreeNode node, TreeNode left, TreeNode right) {
+			node.left = left;
+			node.right = right;
+			node.height = Math.max(height(left), height(right)) + 1;
+			node.size = size(left) + size(right) + 1;
+		}
+	});
+
 	public TreeNode addRecursive(TreeNode currentNode, int value) {
 		//Step-1: Base condition, when value is insert from root
 		if (currentNode == null) {
@@ -62,6 +127,8 @@ public class BinarySearchTree {
 			// value already exist
 			return currentNode;
 		}
+		// refresh the subtree size and height after the left/right child update
+		updateNode(currentNode);
 		// return after the left/right child update
 		return currentNode;
 	}
@@ -76,15 +143,26 @@ public class BinarySearchTree {
 	}
 
 	private TreeNode addIterative(TreeNode currentNode, int value) {
+		long start = startMetrics();
 		// Step-1: Base condition, when value is insert from root
 		if (currentNode == null) {
+			recordMetrics(TreeMetrics.ADD, start, 0, false);
 			return new TreeNode(value);
 		}
 		// Step-2: Create a node to tell the correct place of insertion.
 		TreeNode parentNode = currentNode;
 		TreeNode tempNode = currentNode;
-		// Step-3: Traverse all node to find the correct place of insertion
+		int depth = 0;
+		// Step-3: Traverse all node to find the correct place of insertion and remember the path,
+		// nothing is changed before we know the value is new
 		while (tempNode != null) {
+			if (value == tempNode.value) {
+				// value already exist
+				clearPath(depth);
+				recordMetrics(TreeMetrics.ADD, start, depth + 1, true);
+				return currentNode;
+			}
+			pushPath(depth++, tempNode);
 			parentNode = tempNode;
 			// if the currentNode values is less than the left, go left other right
 			tempNode = value < tempNode.value ? tempNode.left : tempNode.right;
@@ -95,6 +173,9 @@ public class BinarySearchTree {
 		} else {
 			parentNode.right = new TreeNode(value);
 		}
+		// Step-5: Every node on the path got one more node in its subtree
+		updatePath(depth);
+		recordMetrics(TreeMetrics.ADD, start, depth, false);
 		// return after the left/right child update
 		return currentNode;
 	}
@@ -107,6 +188,373 @@ public class BinarySearchTree {
 		root = addIterative(root, value);
 	}
 
+	// path[depth] = node, the path grows with the tree
+	void pushPath(int depth, TreeNode node) {
+		if (depth == path.length) {
+			path = Arrays.copyOf(path, depth * 2);
+		}
+		path[depth] = node;
+	}
+
+	// the subtrees of path[0, depth) changed, refresh them bottom-up and release the path
+	void updatePath(int depth) {
+		for (int i = depth - 1; i >= 0; i--) {
+			updateNode(path[i]);
+		}
+		clearPath(depth);
+	}
+
+	// refresh the cached height and subtree size of node from its children
+	void updateNode(TreeNode node) {
+		node.height = Math.max(height(node.left), height(node.right)) + 1;
+		node.size = size(node.left) + size(node.right) + 1;
+	}
+
+	// release the references to the nodes of path[0, depth)
+	void clearPath(int depth) {
+		Arrays.fill(path, 0, depth, null);
+	}
+
+	// below this many keys a subtree is built on the current thread
+	private static final int PARALLEL_BUILD_THRESHOLD = 1 << 14;
+
+	/**
+	 * BULK LOAD: Replace the content of the BST by a perfectly balanced tree of the given values.
+	 *
+	 * The middle value of the sorted array becomes the root, the left half builds the left subtree
+	 * and the right half builds the right subtree:
+	 *
+	 *   [1, 2, 3, 4, 5, 6, 7]  ==>          4
+	 *               mid=4                  /   \
+	 *                                     2     6
+	 *                                    / \   / \
+	 *                                   1   3 5   7
+	 *
+	 * Every node is created once, so a sorted input is loaded in O(n). An unsorted input is sorted first,
+	 * duplicates are dropped.
+	 *
+	 * @param values
+	 */
+	public void buildBalanced(int[] values) {
+		buildBalanced(values, false);
+	}
+
+	/**
+	 * BULK LOAD: same as buildBalanced(values), large subtrees are built in parallel on the common ForkJoinPool
+	 * when parallel is true.
+	 *
+	 * @param values
+	 * @param parallel
+	 */
+	public void buildBalanced(int[] values, boolean parallel) {
+		// Step-1: Sort a copy if the input is not sorted yet, then drop the duplicates
+		int[] keys = values.clone();
+		if (!isSorted(keys)) {
+			if (parallel) {
+				Arrays.parallelSort(keys);
+			} else {
+				Arrays.sort(keys);
+			}
+		}
+		int length = removeDuplicates(keys);
+		// Step-2: Build the tree from the middle out
+		if (parallel && length > PARALLEL_BUILD_THRESHOLD) {
+			root = ForkJoinPool.commonPool().invoke(new BuildTask(keys, 0, length));
+		} else {
+			root = buildBalanced(keys, 0, length);
+		}
+	}
+
+	/**
+	 * BULK LOAD: same as buildBalanced(values) for a stream of values.
+	 *
+	 * @param values
+	 */
+	public void buildBalanced(IntStream values) {
+		boolean parallel = values.isParallel();
+		buildBalanced(values.toArray(), parallel);
+	}
+
+	private static boolean isSorted(int[] keys) {
+		for (int i = 1; i < keys.length; i++) {
+			if (keys[i - 1] > keys[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// compact a sorted array in place, returns the number of distinct keys
+	private static int removeDuplicates(int[] keys) {
+		if (keys.length == 0) {
+			return 0;
+		}
+		int length = 1;
+		for (int i = 1; i < keys.length; i++) {
+			if (keys[i] != keys[length - 1]) {
+				keys[length++] = keys[i];
+			}
+		}
+		return length;
+	}
+
+	// build keys[from, to) into a balanced subtree, the recursion depth is log(n)
+	TreeNode buildBalanced(int[] keys, int from, int to) {
+		if (from >= to) {
+			return null;
+		}
+		int mid = (from + to) >>> 1;
+		TreeNode node = new TreeNode(keys[mid]);
+		node.left = buildBalanced(keys, from, mid);
+		node.right = buildBalanced(keys, mid + 1, to);
+		node.height = Math.max(height(node.left), height(node.right)) + 1;
+		node.size = size(node.left) + size(node.right) + 1;
+		return node;
+	}
+
+	int height(TreeNode node) {
+		return node == null ? 0 : node.height;
+	}
+
+	/**
+	 * Number of nodes in the subtree of node, O(1) as every node keeps its subtree size.
+	 *
+	 * @param node
+	 * @return
+	 */
+	public int size(TreeNode node) {
+		return node == null ? 0 : node.size;
+	}
+
+	// fork/join task building the left and right half of keys[from, to) in parallel
+	private class BuildTask extends RecursiveTask<TreeNode> {
+		private static final long serialVersionUID = 1L;
+		private final int[] keys;
+		private final int from;
+		private final int to;
+
+		BuildTask(int[] keys, int from, int to) {
+			this.keys = keys;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected TreeNode compute() {
+			if (to - from <= PARALLEL_BUILD_THRESHOLD) {
+				return buildBalanced(keys, from, to);
+			}
+			int mid = (from + to) >>> 1;
+			TreeNode node = new TreeNode(keys[mid]);
+			BuildTask leftTask = new BuildTask(keys, from, mid);
+			leftTask.fork();
+			node.right = new BuildTask(keys, mid + 1, to).compute();
+			node.left = leftTask.join();
+			node.height = Math.max(height(node.left), height(node.right)) + 1;
+			node.size = size(node.left) + size(node.right) + 1;
+			return node;
+		}
+	}
+
+	/**
+	 * BATCH INSERT: insert all values with a single merged descent instead of one descent per value.
+	 *
+	 * The batch is sorted, then every node splits its range of the batch at node.value: the smaller keys go
+	 * down to the left subtree, the greater ones to the right subtree. A range which reaches an empty child is
+	 * built there as a balanced subtree, so every node on the way is visited once per batch:
+	 *
+	 *              50   [3, 22, 60, 90]            [3, 22] ==> 22's subtree
+	 *             /  \                             [60, 90] reaches the empty right child of 80,
+	 *           22    80                                     built as 60 -> 90
+	 *
+	 * Values which already exist(or repeat in the batch) are ignored. The descent uses an explicit stack,
+	 * so degenerate trees don't overflow the call stack.
+	 *
+	 * @param values
+	 * @return number of values inserted
+	 */
+	public int addAll(int[] values) {
+		int[] keys = sortedDistinct(values);
+		int sizeBefore = size(root);
+		// Step-1: Base condition, the batch becomes the tree
+		if (root == null) {
+			root = buildBalanced(keys, 0, keys.length);
+			return keys.length;
+		}
+		BatchStack stack = new BatchStack();
+		stack.push(root, null, 0, keys.length);
+		while (stack.top > 0) {
+			int frame = stack.top - 1;
+			TreeNode node = stack.nodes[frame];
+			// Step-3: Both subtrees are done, refresh the size and height of the node
+			if (stack.state[frame] != BatchStack.NEW) {
+				updateNode(node);
+				stack.pop();
+				continue;
+			}
+			// Step-2: Split the range at node.value, hand the halves to the children
+			stack.state[frame] = BatchStack.EXPANDED;
+			int from = stack.from[frame];
+			int to = stack.to[frame];
+			int split = lowerBound(keys, from, to, node.value);
+			int rightFrom = split < to && keys[split] == node.value ? split + 1 : split;
+			if (from < split) {
+				if (node.left == null) {
+					node.left = buildBalanced(keys, from, split);
+				} else {
+					stack.push(node.left, node, from, split);
+				}
+			}
+			if (rightFrom < to) {
+				if (node.right == null) {
+					node.right = buildBalanced(keys, rightFrom, to);
+				} else {
+					stack.push(node.right, node, rightFrom, to);
+				}
+			}
+		}
+		return size(root) - sizeBefore;
+	}
+
+	/**
+	 * BATCH DELETE: delete all values with a single merged descent, the batch is split at every node like in
+	 * addAll. A node of the batch is deleted after its subtrees are done(post-order), replaced by its child
+	 * or by its successor, so the deletes never search from the root again.
+	 *
+	 * @param values
+	 * @return number of values deleted
+	 */
+	public int removeAll(int[] values) {
+		int[] keys = sortedDistinct(values);
+		int sizeBefore = size(root);
+		if (root == null || keys.length == 0) {
+			return 0;
+		}
+		BatchStack stack = new BatchStack();
+		stack.push(root, null, 0, keys.length);
+		while (stack.top > 0) {
+			int frame = stack.top - 1;
+			TreeNode node = stack.nodes[frame];
+			if (stack.state[frame] == BatchStack.NEW) {
+				// Step-1: Split the range at node.value, hand the halves to the children
+				int from = stack.from[frame];
+				int to = stack.to[frame];
+				int split = lowerBound(keys, from, to, node.value);
+				boolean found = split < to && keys[split] == node.value;
+				stack.state[frame] = found ? BatchStack.FOUND : BatchStack.EXPANDED;
+				int rightFrom = found ? split + 1 : split;
+				if (from < split && node.left != null) {
+					stack.push(node.left, node, from, split);
+				}
+				if (rightFrom < to && node.right != null) {
+					stack.push(node.right, node, rightFrom, to);
+				}
+				continue;
+			}
+			// Step-2: Both subtrees are done, delete the node if it is in the batch
+			TreeNode parentNode = stack.parents[frame];
+			TreeNode replacement = node;
+			if (stack.state[frame] == BatchStack.FOUND) {
+				if (node.left == null || node.right == null) {
+					replacement = node.left != null ? node.left : node.right;
+				} else {
+					// node with both child takes the value of its successor, the successor is unlinked
+					node.value = removeMin(node, node.right);
+				}
+			}
+			if (replacement == node) {
+				updateNode(node);
+			}
+			// Step-3: Link the replacement to the parent
+			if (parentNode == null) {
+				root = replacement;
+			} else if (parentNode.left == node) {
+				parentNode.left = replacement;
+			} else {
+				parentNode.right = replacement;
+			}
+			stack.pop();
+		}
+		return sizeBefore - size(root);
+	}
+
+	// unlink the minNode of subTree(the right child of parentNode), returns its value,
+	// parentNode is refreshed by the caller
+	private int removeMin(TreeNode parentNode, TreeNode subTree) {
+		TreeNode minNode = subTree;
+		int depth = 0;
+		while (minNode.left != null) {
+			pushPath(depth++, minNode);
+			parentNode = minNode;
+			minNode = minNode.left;
+		}
+		if (parentNode.right == minNode) {
+			parentNode.right = minNode.right;
+		} else {
+			parentNode.left = minNode.right;
+		}
+		updatePath(depth);
+		return minNode.value;
+	}
+
+	// sorted copy of values without duplicates
+	static int[] sortedDistinct(int[] values) {
+		int[] keys = values.clone();
+		if (!isSorted(keys)) {
+			Arrays.sort(keys);
+		}
+		return Arrays.copyOf(keys, removeDuplicates(keys));
+	}
+
+	// first index in keys[from, to) whose key is >= key, to if there is none
+	private static int lowerBound(int[] keys, int from, int to, int key) {
+		while (from < to) {
+			int mid = (from + to) >>> 1;
+			if (keys[mid] < key) {
+				from = mid + 1;
+			} else {
+				to = mid;
+			}
+		}
+		return from;
+	}
+
+	// explicit stack of the merged batch descent, a frame is a node and its range keys[from, to) of the batch
+	private class BatchStack {
+		static final byte NEW = 0;
+		static final byte EXPANDED = 1;
+		static final byte FOUND = 2;
+
+		TreeNode[] nodes = new TreeNode[32];
+		TreeNode[] parents = new TreeNode[32];
+		int[] from = new int[32];
+		int[] to = new int[32];
+		byte[] state = new byte[32];
+		int top;
+
+		void push(TreeNode node, TreeNode parentNode, int from, int to) {
+			if (top == nodes.length) {
+				nodes = Arrays.copyOf(nodes, top * 2);
+				parents = Arrays.copyOf(parents, top * 2);
+				this.from = Arrays.copyOf(this.from, top * 2);
+				this.to = Arrays.copyOf(this.to, top * 2);
+				state = Arrays.copyOf(state, top * 2);
+			}
+			nodes[top] = node;
+			parents[top] = parentNode;
+			this.from[top] = from;
+			this.to[top] = to;
+			state[top] = NEW;
+			top++;
+		}
+
+		void pop() {
+			top--;
+			nodes[top] = null;
+			parents[top] = null;
+		}
+	}
+
 	/**
 	 * TRAVERSAL: POST-ORDER-TRAVERSAL
 	 *
@@ -118,19 +566,116 @@ public class BinarySearchTree {
 	 */
 	public List<Integer> postOrderTraversal(TreeNode root) {
 		List<Integer> postOrderTraverseVal = new ArrayList<Integer>();
-		if (root == null) {
-			return postOrderTraverseVal;
+		postOrderTraversal(root, postOrderTraverseVal::add);
+		return postOrderTraverseVal;
+	}
+
+	/**
+	 * TRAVERSAL: POST-ORDER-TRAVERSAL without recursion.
+	 *
+	 * The path to the current node is kept on an array stack(O(h) memory, no stack overflow on degenerate
+	 * trees). A node is visited when we come back to it from its right subtree(or it has none):
+	 *
+	 *          node          lastVisited == node.right  ->  right subtree done, visit node
+	 *         /    \
+	 *       ...    right
+	 *
+	 * The tree is only read, several threads may traverse the same tree at the same time.
+	 *
+	 * @param root
+	 * @param action receives every value in post-order
+	 */
+	public void postOrderTraversal(TreeNode root, IntConsumer action) {
+		TreeNode[] stack = new TreeNode[32];
+		int top = 0;
+		TreeNode currentNode = root;
+		TreeNode lastVisited = null;
+		while (currentNode != null || top > 0) {
+			// Step-1: Go down left and keep the path
+			if (currentNode != null) {
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, top * 2);
+				}
+				stack[top++] = currentNode;
+				currentNode = currentNode.left;
+				continue;
+			}
+			TreeNode node = stack[top - 1];
+			if (node.right != null && node.right != lastVisited) {
+				// Step-2: Right subtree is not done yet, go into it
+				currentNode = node.right;
+			} else {
+				// Step-3: Both subtrees are done, visit the node
+				action.accept(node.value);
+				lastVisited = node;
+				top--;
+			}
 		}
-		return processPostOrderTraversal(root, postOrderTraverseVal);
 	}
 
-	private List<Integer> processPostOrderTraversal(TreeNode root, List<Integer> processedList) {
-		if (root != null) {
-			processPostOrderTraversal(root.left, processedList);
-			processPostOrderTraversal(root.right, processedList);
-			processedList.add(root.value);
+	/**
+	 * TRAVERSAL: POST-ORDER-TRAVERSAL without recursion and without extra memory(Morris traversal).
+	 *
+	 * Same threading as the in-order traversal. A node is reported after its right subtree, so when we come
+	 * back through the thread of a node, the right edge chain of its left subtree is reversed in place,
+	 * visited bottom-up and reversed back:
+	 *
+	 *          node  <-----
+	 *         /            |
+	 *       N1             | thread
+	 *         \            |       visit: pred, N2, N1
+	 *          N2          |
+	 *            \         |
+	 *             pred ----
+	 *
+	 * A dummy node on top of the root makes the right edge chain of the whole tree the last one visited.
+	 *
+	 * Needs exclusive access: while it runs the tree is threaded, so it must not be read(not even traversed)
+	 * or modified by any other thread or by action. It is not exception safe either, if action throws, the
+	 * threads stay in the tree as cycles. Use postOrderTraversal(root, action) unless the O(h) stack matters.
+	 *
+	 * @param root
+	 * @param action receives every value in post-order
+	 */
+	public void postOrderTraversalMorris(TreeNode root, IntConsumer action) {
+		TreeNode dummyNode = new TreeNode(0);
+		dummyNode.left = root;
+		TreeNode currentNode = dummyNode;
+		while (currentNode != null) {
+			if (currentNode.left == null) {
+				currentNode = currentNode.right;
+				continue;
+			}
+			TreeNode predecessor = getPredecessor(currentNode);
+			if (predecessor.right == null) {
+				predecessor.right = currentNode;
+				currentNode = currentNode.left;
+			} else {
+				// left subtree is done, visit its right edge chain bottom-up
+				reverseRightChain(currentNode.left, predecessor);
+				for (TreeNode node = predecessor;; node = node.right) {
+					action.accept(node.value);
+					if (node == currentNode.left) {
+						break;
+					}
+				}
+				reverseRightChain(predecessor, currentNode.left);
+				predecessor.right = null;
+				currentNode = currentNode.right;
+			}
+		}
+	}
+
+	// reverse the right pointers of the chain from -> to, the right pointer of from is left untouched
+	private void reverseRightChain(TreeNode from, TreeNode to) {
+		TreeNode previousNode = from;
+		TreeNode node = from.right;
+		while (previousNode != to) {
+			TreeNode nextNode = node.right;
+			node.right = previousNode;
+			previousNode = node;
+			node = nextNode;
 		}
-		return processedList;
 	}
 
 	/**
@@ -144,20 +689,72 @@ public class BinarySearchTree {
 	 */
 	public List<Integer> preOrderTraversal(TreeNode root) {
 		List<Integer> preOrderTraverseVal = new ArrayList<Integer>();
-		if (root == null) {
-			return preOrderTraverseVal;
-		}
-		return processPreOrderTraversal(root, preOrderTraverseVal);
+		preOrderTraversal(root, preOrderTraverseVal::add);
+		return preOrderTraverseVal;
 	}
 
-	private List<Integer> processPreOrderTraversal(TreeNode root, List<Integer> processedList) {
+	/**
+	 * TRAVERSAL: PRE-ORDER-TRAVERSAL without recursion.
+	 *
+	 * A node is visited when it is popped, then its right child is pushed below its left child, so the left
+	 * subtree is done first. Array stack(O(h) memory), the tree is only read, several threads may traverse
+	 * the same tree at the same time.
+	 *
+	 * @param root
+	 * @param action receives every value in pre-order
+	 */
+	public void preOrderTraversal(TreeNode root, IntConsumer action) {
+		TreeNode[] stack = new TreeNode[32];
+		int top = 0;
 		if (root != null) {
-			processedList.add(root.value);
-			processPreOrderTraversal(root.left, processedList);
-			processPreOrderTraversal(root.right, processedList);
+			stack[top++] = root;
+		}
+		while (top > 0) {
+			TreeNode node = stack[--top];
+			action.accept(node.value);
+			if (top + 2 > stack.length) {
+				stack = Arrays.copyOf(stack, stack.length * 2);
+			}
+			if (node.right != null) {
+				stack[top++] = node.right;
+			}
+			if (node.left != null) {
+				stack[top++] = node.left;
+			}
+		}
+	}
 
+	/**
+	 * TRAVERSAL: PRE-ORDER-TRAVERSAL without recursion and without extra memory(Morris traversal).
+	 *
+	 * Same threading as the in-order traversal, but the node is reported when the thread is created,
+	 * i.e. before its left subtree.
+	 *
+	 * Needs exclusive access: while it runs the tree is threaded, so it must not be read(not even traversed)
+	 * or modified by any other thread or by action. It is not exception safe either, if action throws, the
+	 * threads stay in the tree as cycles. Use preOrderTraversal(root, action) unless the O(h) stack matters.
+	 *
+	 * @param root
+	 * @param action receives every value in pre-order
+	 */
+	public void preOrderTraversalMorris(TreeNode root, IntConsumer action) {
+		TreeNode currentNode = root;
+		while (currentNode != null) {
+			if (currentNode.left == null) {
+				action.accept(currentNode.value);
+				currentNode = currentNode.right;
+				continue;
+			}
+			TreeNode predecessor = getPredecessor(currentNode);
+			if (predecessor.right == null) {
+				action.accept(currentNode.value);
+				predecessor.right = currentNode;
+				currentNode = currentNode.left;
+			} else {
+				predecessor.right = null;
+				currentNode = currentNode.right;
+			}
 		}
-		return processedList;
 	}
 
 	/**
@@ -171,19 +768,272 @@ public class BinarySearchTree {
 	 */
 	public List<Integer> inOrderTraversal(TreeNode root) {
 		List<Integer> inOrderTraverseVal = new ArrayList<Integer>();
-		if (root == null) {
-			return inOrderTraverseVal;
+		inOrderTraversal(root, inOrderTraverseVal::add);
+		return inOrderTraverseVal;
+	}
+
+	/**
+	 * TRAVERSAL: IN-ORDER-TRAVERSAL without recursion.
+	 *
+	 * Walks the in-order cursor(array stack of the path, O(h) memory). The tree is only read, several threads
+	 * may traverse the same tree at the same time.
+	 *
+	 * @param root
+	 * @param action receives every value in in-order
+	 */
+	public void inOrderTraversal(TreeNode root, IntConsumer action) {
+		PrimitiveIterator.OfInt cursor = new InOrderCursor(root);
+		while (cursor.hasNext()) {
+			action.accept(cursor.nextInt());
 		}
-		return processInOrderTraversal(root, inOrderTraverseVal);
 	}
 
-	private List<Integer> processInOrderTraversal(TreeNode root, List<Integer> processedList) {
-		if (root != null) {
-			processInOrderTraversal(root.left, processedList);
-			processedList.add(root.value);
-			processInOrderTraversal(root.right, processedList);
+	/**
+	 * TRAVERSAL: IN-ORDER-TRAVERSAL without recursion and without extra memory(Morris traversal).
+	 *
+	 * Before going into the left subtree of a node, the right pointer of its in-order predecessor(maxNode
+	 * of the left subtree) is pointed back to the node(thread). When we come back through the thread the
+	 * left subtree is done: the thread is removed, the node is visited and we continue with the right subtree.
+	 *
+	 *          node  <-----
+	 *         /            |
+	 *       N1             | thread
+	 *      /  \            |
+	 *    N3    pred -------
+	 *
+	 * The threads are removed again by the end of the walk.
+	 *
+	 * Needs exclusive access: while it runs the tree is threaded, so it must not be read(not even traversed)
+	 * or modified by any other thread or by action. It is not exception safe either, if action throws, the
+	 * threads stay in the tree as cycles. Use inOrderTraversal(root, action) unless the O(h) stack matters.
+	 *
+	 * @param root
+	 * @param action receives every value in in-order
+	 */
+	public void inOrderTraversalMorris(TreeNode root, IntConsumer action) {
+		TreeNode currentNode = root;
+		while (currentNode != null) {
+			if (currentNode.left == null) {
+				action.accept(currentNode.value);
+				currentNode = currentNode.right;
+				continue;
+			}
+			TreeNode predecessor = getPredecessor(currentNode);
+			if (predecessor.right == null) {
+				// create the thread and go left
+				predecessor.right = currentNode;
+				currentNode = currentNode.left;
+			} else {
+				// came back through the thread, remove it
+				predecessor.right = null;
+				action.accept(currentNode.value);
+				currentNode = currentNode.right;
+			}
+		}
+	}
+
+	// maxNode of the left subtree, stops at an existing thread back to node
+	private TreeNode getPredecessor(TreeNode node) {
+		TreeNode predecessor = node.left;
+		while (predecessor.right != null && predecessor.right != node) {
+			predecessor = predecessor.right;
+		}
+		return predecessor;
+	}
+
+	/**
+	 * In-order cursor, it only keeps the path to the current node(O(h) memory), does not modify the tree
+	 * and returns primitive ints, so nothing is allocated per value.
+	 *
+	 * @param root
+	 * @return
+	 */
+	public PrimitiveIterator.OfInt inOrderIterator(TreeNode root) {
+		return new InOrderCursor(root);
+	}
+
+	/**
+	 * RANGE SCAN: Lazy in-order cursor over the values in [from, to).
+	 *
+	 * Only the path to the ceiling of from is pushed(left subtrees of smaller nodes are never visited)
+	 * and the cursor stops at the first value >= to, so a scan of k values costs O(h + k).
+	 *
+	 * @param root
+	 * @param from inclusive lower bound
+	 * @param to exclusive upper bound
+	 * @return
+	 */
+	public PrimitiveIterator.OfInt rangeIterator(TreeNode root, int from, int to) {
+		return new InOrderCursor(root, from, to);
+	}
+
+	/**
+	 * RANGE SCAN: Pass every value in [from, to) in ascending order to action.
+	 *
+	 * @param root
+	 * @param from inclusive lower bound
+	 * @param to exclusive upper bound
+	 * @param action
+	 */
+	public void range(TreeNode root, int from, int to, IntConsumer action) {
+		PrimitiveIterator.OfInt cursor = new InOrderCursor(root, from, to);
+		while (cursor.hasNext()) {
+			action.accept(cursor.nextInt());
+		}
+	}
+
+	private class InOrderCursor implements PrimitiveIterator.OfInt {
+		private TreeNode[] stack = new TreeNode[32];
+		private int top;
+		// exclusive upper bound of the returned values
+		private final long to;
+
+		InOrderCursor(TreeNode root) {
+			this.to = Long.MAX_VALUE;
+			pushLeft(root);
+		}
+
+		InOrderCursor(TreeNode root, int from, int to) {
+			this.to = to;
+			// push the nodes >= from on the search path of from, smaller nodes are skipped with their left subtree
+			TreeNode node = root;
+			while (node != null) {
+				if (node.value >= from) {
+					push(node);
+					node = node.left;
+				} else {
+					node = node.right;
+				}
+			}
+		}
+
+		private void push(TreeNode node) {
+			if (top == stack.length) {
+				stack = Arrays.copyOf(stack, top * 2);
+			}
+			stack[top++] = node;
+		}
+
+		private void pushLeft(TreeNode node) {
+			while (node != null) {
+				push(node);
+				node = node.left;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return top > 0 && stack[top - 1].value < to;
+		}
+
+		@Override
+		public int nextInt() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			TreeNode node = stack[--top];
+			pushLeft(node.right);
+			return node.value;
+		}
+	}
+
+	/**
+	 * Freeze the BST into a read-only EytzingerTree(pointer free breadth first array, 4 bytes per key)
+	 * for trees which are built once and then only searched.
+	 *
+	 * @param root
+	 * @return
+	 */
+	public EytzingerTree freeze(TreeNode root) {
+		return EytzingerTree.freeze(root, NODE_ACCESSOR);
+	}
+
+	/**
+	 * SERIALIZE: write the tree of root to channel in the compact binary format of TreeCodec
+	 * (pre-order, delta/varint keys and structure bits).
+	 *
+	 * @param root
+	 * @param channel
+	 * @return number of nodes written
+	 * @throws IOException
+	 */
+	public long writeTo(TreeNode root, WritableByteChannel channel) throws IOException {
+		return codec.write(root, channel);
+	}
+
+	/**
+	 * DESERIALIZE: replace the content of the BST by a tree read from channel. The tree is rebuilt in one pass
+	 * from its structure bits with the same shape it was written with, no key is compared.
+	 * The tree must be the rest of the channel, the bytes read past it are dropped.
+	 *
+	 * @param channel
+	 * @throws IOException
+	 */
+	public void readFrom(ReadableByteChannel channel) throws IOException {
+		root = codec.read(channel);
+	}
+
+	/**
+	 * DESERIALIZE: same as readFrom(channel) for a channel holding more than the tree. The bytes read past the
+	 * end of the tree stay in buffer, pass the same buffer to the next read of the channel(see TreeCodec.read).
+	 *
+	 * @param channel
+	 * @param buffer unread bytes of channel, TreeCodec.newReadBuffer() for the first read
+	 * @throws IOException
+	 */
+	public void readFrom(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+		root = codec.read(channel, buffer);
+	}
+
+	/**
+	 * METRICS: count the iterative operations(addIterative, searchIterative, deleteNodeIterative) of this tree,
+	 * the depth they reach, their key comparisons and a sample of their latencies, and publish them with the
+	 * size and height of the tree as the MBean tree:type=TreeMetrics,name=name.
+	 *
+	 * The metrics can be switched off and on again through JMX(or TreeMetrics.setEnabled), a second call returns
+	 * the metrics already registered.
+	 *
+	 * @param name name of the MBean
+	 * @return
+	 */
+	public TreeMetrics enableMetrics(String name) {
+		if (metrics == null) {
+			metrics = new TreeMetrics(name, () -> size(root), this::metricsHeight).register();
+		}
+		metrics.setEnabled(true);
+		return metrics;
+	}
+
+	/**
+	 * Height of the tree for the metrics, read by the JMX thread while the tree may be changing: it must not
+	 * walk the tree. Every operation keeps the height of the nodes it changes, so the height of the root is
+	 * the height of the tree after the last operation the JMX thread has seen.
+	 *
+	 * @return
+	 */
+	int metricsHeight() {
+		return height(root);
+	}
+
+	// unregister the MBean, the operations are back to a single null check
+	public void removeMetrics() {
+		if (metrics != null) {
+			metrics.unregister();
+			metrics = null;
+		}
+	}
+
+	long startMetrics() {
+		TreeMetrics metrics = this.metrics;
+		return metrics != null ? metrics.start() : 0;
+	}
+
+	// depth nodes were visited, every node costs an == and a < comparison, the node found only the ==
+	void recordMetrics(int operation, long start, int depth, boolean found) {
+		TreeMetrics metrics = this.metrics;
+		if (metrics != null) {
+			metrics.record(operation, start, depth, found ? 2 * depth - 1 : 2 * depth);
 		}
-		return processedList;
 	}
 
 	// SEARCH: 1-RECURSIVE  2-ITERATIVE
@@ -201,9 +1051,13 @@ public class BinarySearchTree {
 	}
 
 	public TreeNode searchIterative(TreeNode root, int searchData) {
+		long start = startMetrics();
+		int depth = 0;
 		TreeNode currentNode = root;
 		while (currentNode != null) {
+			depth++;
 			if (searchData == currentNode.value) {
+				recordMetrics(TreeMetrics.SEARCH, start, depth, true);
 				return currentNode;
 			}
 			if (searchData < currentNode.value) {
@@ -212,10 +1066,203 @@ public class BinarySearchTree {
 				currentNode = currentNode.right;
 			}
 		}
+		recordMetrics(TreeMetrics.SEARCH, start, depth, false);
+		return null;
+	}
+
+	/**
+	 * FLOOR: node with the greatest value less than or equal to key.
+	 *
+	 * Walk down like a search, every node smaller than key is a candidate and the last candidate
+	 * seen is the closest one.
+	 *
+	 * @param root
+	 * @param key
+	 * @return the node, or null if every value is greater than key
+	 */
+	public TreeNode floor(TreeNode root, int key) {
+		TreeNode candidate = null;
+		TreeNode currentNode = root;
+		while (currentNode != null) {
+			if (key == currentNode.value) {
+				return currentNode;
+			}
+			if (key < currentNode.value) {
+				currentNode = currentNode.left;
+			} else {
+				candidate = currentNode;
+				currentNode = currentNode.right;
+			}
+		}
+		return candidate;
+	}
+
+	/**
+	 * CEILING: node with the smallest value greater than or equal to key.
+	 *
+	 * @param root
+	 * @param key
+	 * @return the node, or null if every value is less than key
+	 */
+	public TreeNode ceiling(TreeNode root, int key) {
+		TreeNode candidate = null;
+		TreeNode currentNode = root;
+		while (currentNode != null) {
+			if (key == currentNode.value) {
+				return currentNode;
+			}
+			if (key > currentNode.value) {
+				currentNode = currentNode.right;
+			} else {
+				candidate = currentNode;
+				currentNode = currentNode.left;
+			}
+		}
+		return candidate;
+	}
+
+	/**
+	 * LOWER(predecessor): node with the greatest value strictly less than key.
+	 *
+	 * @param root
+	 * @param key
+	 * @return the node, or null if there is none
+	 */
+	public TreeNode lower(TreeNode root, int key) {
+		TreeNode candidate = null;
+		TreeNode currentNode = root;
+		while (currentNode != null) {
+			if (currentNode.value < key) {
+				candidate = currentNode;
+				currentNode = currentNode.right;
+			} else {
+				currentNode = currentNode.left;
+			}
+		}
+		return candidate;
+	}
+
+	/**
+	 * HIGHER(successor): node with the smallest value strictly greater than key.
+	 *
+	 * @param root
+	 * @param key
+	 * @return the node, or null if there is none
+	 */
+	public TreeNode higher(TreeNode root, int key) {
+		TreeNode candidate = null;
+		TreeNode currentNode = root;
+		while (currentNode != null) {
+			if (currentNode.value > key) {
+				candidate = currentNode;
+				currentNode = currentNode.left;
+			} else {
+				currentNode = currentNode.right;
+			}
+		}
+		return candidate;
+	}
+
+	/**
+	 * ORDER STATISTIC: RANK, number of values strictly less than key.
+	 *
+	 * Every time the search goes right, the node and its whole left subtree are smaller than key:
+	 *
+	 *            50(size=6)          rank(44): at 50 go left
+	 *           /                              at 22 go right -> 1(22) + size(3's subtree)=3 -> 4
+	 *        22(size=5)                        at 44 found    -> + size(44.left)=0 -> 4
+	 *       /    \
+	 *  3(size=3)  44(size=1)
+	 *
+	 * @param root
+	 * @param key
+	 * @return
+	 */
+	public int rank(TreeNode root, int key) {
+		int rank = 0;
+		TreeNode currentNode = root;
+		while (currentNode != null) {
+			if (key <= currentNode.value) {
+				if (key == currentNode.value) {
+					return rank + size(currentNode.left);
+				}
+				currentNode = currentNode.left;
+			} else {
+				rank += size(currentNode.left) + 1;
+				currentNode = currentNode.right;
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * ORDER STATISTIC: SELECT, node holding the k-th smallest value(k starts from 0).
+	 *
+	 * @param root
+	 * @param k
+	 * @return the node, or null if k is out of range
+	 */
+	public TreeNode select(TreeNode root, int k) {
+		if (k < 0 || k >= size(root)) {
+			return null;
+		}
+		TreeNode currentNode = root;
+		while (currentNode != null) {
+			int leftSize = size(currentNode.left);
+			if (k < leftSize) {
+				currentNode = currentNode.left;
+			} else if (k > leftSize) {
+				// skip the left subtree and the node itself
+				k -= leftSize + 1;
+				currentNode = currentNode.right;
+			} else {
+				return currentNode;
+			}
+		}
 		return null;
 	}
 
+	/**
+	 * ORDER STATISTIC: number of values in [from, to).
+	 *
+	 * @param root
+	 * @param from inclusive lower bound
+	 * @param to exclusive upper bound
+	 * @return
+	 */
+	public int countInRange(TreeNode root, int from, int to) {
+		if (from >= to) {
+			return 0;
+		}
+		return rank(root, to) - rank(root, from);
+	}
+
+	/**
+	 * ORDER STATISTIC: nearest-rank percentile, e.g. percentile(root, 50) is the median
+	 * and percentile(root, 99) the p99 value.
+	 *
+	 * @param root
+	 * @param percentile in (0, 100]
+	 * @return the node, or null if the tree is empty
+	 */
+	public TreeNode percentile(TreeNode root, double percentile) {
+		if (percentile <= 0 || percentile > 100) {
+			throw new IllegalArgumentException("percentile must be in (0, 100]: " + percentile);
+		}
+		int k = (int) Math.ceil(percentile / 100 * size(root)) - 1;
+		return select(root, Math.max(k, 0));
+	}
+
 	// DELETE: 1-RECURSIVE 2-ITERATIVE
+	/**
+	 * Delete data using recursion. The recursion goes as deep as the tree, so a degenerate tree(keys inserted
+	 * in sorted order) can overflow the stack. A node with both child gets the value of its predecessor,
+	 * deleteNodeIterative(root, deleteData, true) leaves exactly the same tree without recursion.
+	 *
+	 * @param root
+	 * @param deleteData
+	 * @return root of the tree
+	 */
 	public TreeNode deleteNodeRecursive(TreeNode root, int deleteData) {
 		// Step-1: Base condition deleteData is not found
 		if(root == null) return null;
@@ -247,12 +1294,8 @@ public class BinarySearchTree {
 				 * N7 N8 N9 N10 N11 N12 N13 N14
 				 *
 				 */
-				// find the maxNode
-				TreeNode maxNode = getMaxTreeNode(root.left);
-				// update the currentNode data by maxNode data
-				root.value = maxNode.value;
-				// delete maxNode
-				root.left = deleteNodeRecursive(root.left, maxNode.value); // already have the logic to delete leaf node
+				// walk down to the maxNode tracking its parent, unlink it in place and move its data up
+				root.value = removeMax(root, root.left);
 			}
 			// case-3: Delete the node that has one child
 			/**
@@ -272,32 +1315,78 @@ public class BinarySearchTree {
 				root = childNode;
 			}
 		}
+		// refresh the subtree size and height on the way back
+		if (root != null) {
+			updateNode(root);
+		}
 		return root;
 	}
 
-	private TreeNode getMaxTreeNode(TreeNode currentNode) {
-		while (currentNode.right != null) {
-			currentNode = currentNode.right;
+	// unlink the maxNode of subTree(the left child of parentNode), returns its value,
+	// parentNode is refreshed by the caller
+	private int removeMax(TreeNode parentNode, TreeNode subTree) {
+		TreeNode maxNode = subTree;
+		int depth = 0;
+		while (maxNode.right != null) {
+			pushPath(depth++, maxNode);
+			parentNode = maxNode;
+			maxNode = maxNode.right;
 		}
-		return currentNode;
+		if (parentNode.left == maxNode) {
+			parentNode.left = maxNode.left;
+		} else {
+			parentNode.right = maxNode.left;
+		}
+		updatePath(depth);
+		return maxNode.value;
 	}
 
+	/**
+	 * Delete data without recursion. The node is found in one descent from the root, a node with both child
+	 * continues the same descent to its successor and unlinks it in place, so no key is searched twice.
+	 * The descent only remembers the path, the subtree sizes on it are updated once the node is unlinked,
+	 * a missing key changes nothing.
+	 *
+	 * @param root
+	 * @param deleteData
+	 * @return root of the tree
+	 */
 	public TreeNode deleteNodeIterative(TreeNode root, int deleteData) {
+		return deleteNodeIterative(root, deleteData, false);
+	}
+
+	/**
+	 * Delete data without recursion, see deleteNodeIterative(root, deleteData).
+	 *
+	 * @param root
+	 * @param deleteData
+	 * @param promotePredecessor a node with both child gets the value of its predecessor(maxNode of leftChild),
+	 *        same tree as deleteNodeRecursive, else of its successor(minNode of rightChild)
+	 * @return root of the tree
+	 */
+	public TreeNode deleteNodeIterative(TreeNode root, int deleteData, boolean promotePredecessor) {
+		long start = startMetrics();
 		// Step-1: Create pointers to store the currentNode and parent of currentNode
 		TreeNode currentNode = root;
 		TreeNode parentNode = null;
+		int depth = 0;
 
-		// Step-2: Search the node which matched the deleteData and set it's parentNode
+		// Step-2: Search the node which matched the deleteData and set it's parentNode, remember the path
 		while (currentNode != null && currentNode.value != deleteData) {
+			pushPath(depth++, currentNode);
 			// update parentNode
 			parentNode = currentNode;
 			// if the given data is less than currentNode, goto left child otherwise right child node
 			currentNode = deleteData < currentNode.value ? currentNode.left : currentNode.right;
 		}
-		// Step-3: Check if the deleteData is not found in BST
+		// Step-3: Check if the deleteData is not found in BST, nothing was changed
 		if (currentNode == null) {
+			clearPath(depth);
+			recordMetrics(TreeMetrics.DELETE, start, depth, false);
 			return root;
 		}
+		// the path ends at parentNode, the found node is one level deeper
+		int pathLength = depth++;
 		// Step-4: DELETE NODE, 3 types: delete leaf node, single child node, both child node
 		// case-1: Delete node that has no child node(leaf node)
 		if (currentNode.left == null && currentNode.right == null) {
@@ -310,6 +1399,7 @@ public class BinarySearchTree {
 					parentNode.right = null;
 				}
 			} else {
+				recordMetrics(TreeMetrics.DELETE, start, depth, true);
 				return null;
 			}
 		}
@@ -321,19 +1411,32 @@ public class BinarySearchTree {
 			 *        /        \
 			 *      N1          N2 <---delete(1- find the minNode(N13) of rightChild, 2- Update N2 data by minNode data,
 			 *     / \          / \           3-Delete minNode)
-			 *    /   \        /    \
+			 *    /   \        /    \        (promotePredecessor: the maxNode(N12) of leftChild instead)
 			 *   N3   N4      N5     N6
 			 *  / \   / \    /  \    / \
 			 * N7 N8 N9 N10 N11 N12 N13 N14
 			 *
 			 */
-			// find the minNode
-			TreeNode minNode = getMinTreeNode(currentNode.right);
-			int minNodeData = minNode.value;
-			// delete minNode
-			deleteNodeIterative(root, minNode.value); // already have the logic to delete leaf node
-			// update the currentNode by minNode data
-			currentNode.value = minNodeData;
+			// continue the same descent down to the minNode(maxNode) tracking its parent(no second search),
+			// unlink it in place and update the currentNode by its data
+			pushPath(pathLength++, currentNode);
+			TreeNode spineParent = currentNode;
+			TreeNode spineNode = promotePredecessor ? currentNode.left : currentNode.right;
+			TreeNode next = promotePredecessor ? spineNode.right : spineNode.left;
+			while (next != null) {
+				pushPath(pathLength++, spineNode);
+				spineParent = spineNode;
+				spineNode = next;
+				next = promotePredecessor ? spineNode.right : spineNode.left;
+			}
+			// the minNode has no left child(the maxNode no right child), its other child takes its place
+			TreeNode spineChild = promotePredecessor ? spineNode.left : spineNode.right;
+			if (spineParent.left == spineNode) {
+				spineParent.left = spineChild;
+			} else {
+				spineParent.right = spineChild;
+			}
+			currentNode.value = spineNode.value;
 		}
 		// case-3: Delete the node that has one child
 		/**
@@ -362,18 +1465,21 @@ public class BinarySearchTree {
 				root = childNode;
 			}
 		}
+		// Step-5: Every node on the path lost one node in its subtree
+		root = unlinked(root, pathLength);
+		recordMetrics(TreeMetrics.DELETE, start, depth, true);
 		return root;
 	}
 
-	private TreeNode getMinTreeNode(TreeNode currentNode) {
-		while (currentNode.left != null) {
-			currentNode = currentNode.left;
-		}
-		return currentNode;
+	// a node below path[0, pathLength) was unlinked by deleteNodeIterative, refresh the path and return the root,
+	// SplayTree splays the parent of the unlinked node(path[pathLength - 1]) instead
+	TreeNode unlinked(TreeNode root, int pathLength) {
+		updatePath(pathLength);
+		return root;
 	}
 
 	// runner
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
 		BinarySearchTree bst = new BinarySearchTree();
 
 		// insert operation
@@ -400,5 +1506,68 @@ public class BinarySearchTree {
 		// bst.root = bst.deleteNodeIterative(bst.root, 3);
 		System.out.println(bst.inOrderTraversal(bst.root));
 
+		// bulk load
+		bst.buildBalanced(new int[] { 1, 2, 3, 4, 5, 6, 7 });
+		System.out.println(bst.preOrderTraversal(bst.root));
+
+		// ordered queries
+		System.out.println(bst.floor(bst.root, 0) + " " + bst.ceiling(bst.root, 3).value + " " + bst.higher(bst.root, 3).value
+				+ " " + bst.lower(bst.root, 3).value);
+		bst.range(bst.root, 2, 6, value -> System.out.print(value + " "));
+		System.out.println();
+
+		// order statistics
+		System.out.println(bst.rank(bst.root, 5) + " " + bst.select(bst.root, 5).value + " "
+				+ bst.countInRange(bst.root, 2, 6) + " " + bst.percentile(bst.root, 50).value);
+
+		// freeze
+		EytzingerTree frozen = bst.freeze(bst.root);
+		System.out.println(frozen.contains(6) + " " + frozen.contains(8));
+
+		// serialize
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		bst.writeTo(bst.root, Channels.newChannel(bytes));
+		BinarySearchTree copy = new BinarySearchTree();
+		copy.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+		System.out.println(bytes.size() + " bytes " + copy.preOrderTraversal(copy.root));
+		// two trees back to back on one channel, the buffer carries the bytes read past the first one
+		BinarySearchTree small = new BinarySearchTree();
+		small.buildBalanced(new int[] { 1, 2, 3 });
+		bytes.reset();
+		WritableByteChannel out = Channels.newChannel(bytes);
+		bst.writeTo(bst.root, out);
+		small.writeTo(small.root, out);
+		ReadableByteChannel in = Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray()));
+		ByteBuffer buffer = TreeCodec.newReadBuffer();
+		copy.readFrom(in, buffer);
+		BinarySearchTree second = new BinarySearchTree();
+		second.readFrom(in, buffer);
+		System.out.println(copy.preOrderTraversal(copy.root) + " " + second.preOrderTraversal(second.root));
+
+		// metrics, also visible in jconsole as tree:type=TreeMetrics,name=demo
+		TreeMetrics metrics = bst.enableMetrics("demo");
+		for (int input = 0; input < 10; input++) {
+			bst.searchIterative(bst.root, input);
+		}
+		System.out.println("searches: " + metrics.getSearches() + ", depth p50/max: " + metrics.getDepthP50() + "/"
+				+ metrics.getDepthMax() + ", comparisons mean: " + metrics.getComparisonsMean() + ", size: "
+				+ metrics.getSize() + ", height: " + metrics.getHeight());
+		// the height follows the deletes as well, every node keeps its own
+		int[] evens = bst.inOrderTraversal(bst.root).stream().mapToInt(Integer::intValue).filter(value -> value % 2 == 0).toArray();
+		bst.removeAll(evens);
+		System.out.println("after removeAll of the even keys, size: " + metrics.getSize() + ", height: " + metrics.getHeight());
+		bst.removeMetrics();
+
+		// delete a node with both child: the recursive delete and the iterative one with promotePredecessor
+		// move the predecessor up and leave the same tree, the default iterative delete moves the successor up
+		BinarySearchTree recursive = new BinarySearchTree();
+		BinarySearchTree iterative = new BinarySearchTree();
+		recursive.buildBalanced(new int[] { 1, 2, 3, 4, 5, 6, 7 });
+		iterative.buildBalanced(new int[] { 1, 2, 3, 4, 5, 6, 7 });
+		recursive.root = recursive.deleteNodeRecursive(recursive.root, 4);
+		iterative.root = iterative.deleteNodeIterative(iterative.root, 4, true);
+		System.out.println(recursive.preOrderTraversal(recursive.root) + " " + iterative.preOrderTraversal(iterative.root));
+		iterative.root = iterative.deleteNodeIterative(iterative.root, 3);
+		System.out.println(iterative.preOrderTraversal(iterative.root));
 	}
 }
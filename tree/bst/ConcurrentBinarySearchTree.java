@@ -0,0 +1,344 @@
+package tree.bst;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe Binary Search Tree with lock-free reads and per-node locking for writes.
+ *
+ * - search never takes a lock, it only follows volatile child pointers. A key never moves to another node
+ *   (no value copying on delete), so whatever path a reader takes it still lands in the right subtree.
+ * - add locks only the parent node it links the new leaf to.
+ * - delete locks the parent and then the node(always top-down, so there is no deadlock):
+ *     case-1: node with at most one child is unlinked, its parent is pointed to the child.
+ *     case-2: node with both child is only marked as deleted and stays as a routing node.
+ *             Adding the same key again just clears the mark.
+ *     A routing node which is down to one child(its child was unlinked) is unlinked like case-1 right
+ *     after, and so on up the tree, so routing nodes do not pile up under churn.
+ * - every writer validates what it read under the lock(node not unlinked, still a child of the parent,
+ *   slot still free) and retries from the root otherwise.
+ *
+ *            head(sentinel, the tree hangs on head.left)
+ *            /
+ *         root
+ *        /    \
+ *      ...    ...
+ *
+ * @author Prashant Singh
+ *
+ */
+public class ConcurrentBinarySearchTree {
+
+	static final class Node {
+		final int value;
+		volatile Node left;
+		volatile Node right;
+		// logically deleted, the node only routes searches
+		volatile boolean deleted;
+		// physically unlinked from the tree
+		volatile boolean removed;
+
+		Node(int value) {
+			this.value = value;
+		}
+	}
+
+	private final Node head = new Node(0);
+	private final LongAdder size = new LongAdder();
+
+	public int size() {
+		return size.intValue();
+	}
+
+	/**
+	 * Search data in BST without taking any lock.
+	 *
+	 * @param searchData
+	 * @return true if the data is present
+	 */
+	public boolean search(int searchData) {
+		Node currentNode = head.left;
+		while (currentNode != null) {
+			if (searchData == currentNode.value) {
+				return !currentNode.deleted;
+			}
+			currentNode = searchData < currentNode.value ? currentNode.left : currentNode.right;
+		}
+		return false;
+	}
+
+	/**
+	 * Insert data into BST, duplicates are ignored.
+	 *
+	 * @param data
+	 * @return true if the data was inserted
+	 */
+	public boolean add(int data) {
+		retry:
+		while (true) {
+			// Step-1: Traverse without lock to the node holding data or to the parent of the new leaf
+			Node parentNode = head;
+			Node currentNode = head.left;
+			while (currentNode != null && currentNode.value != data) {
+				parentNode = currentNode;
+				currentNode = data < currentNode.value ? currentNode.left : currentNode.right;
+			}
+			// Step-2: data already in the tree, revive it if it was only marked as deleted
+			if (currentNode != null) {
+				if (!currentNode.deleted) {
+					return false;
+				}
+				synchronized (currentNode) {
+					if (currentNode.removed) {
+						continue retry;
+					}
+					if (!currentNode.deleted) {
+						return false;
+					}
+					currentNode.deleted = false;
+				}
+				size.increment();
+				return true;
+			}
+			// Step-3: Lock the parent, validate the slot is still free and link the new leaf
+			synchronized (parentNode) {
+				if (parentNode.removed) {
+					continue retry;
+				}
+				boolean goLeft = parentNode == head || data < parentNode.value;
+				if ((goLeft ? parentNode.left : parentNode.right) != null) {
+					continue retry;
+				}
+				if (goLeft) {
+					parentNode.left = new Node(data);
+				} else {
+					parentNode.right = new Node(data);
+				}
+			}
+			size.increment();
+			return true;
+		}
+	}
+
+	/**
+	 * Delete data from BST.
+	 *
+	 * @param deleteData
+	 * @return true if the data was found and deleted
+	 */
+	public boolean delete(int deleteData) {
+		retry:
+		while (true) {
+			// Step-1: Traverse without lock to the node holding deleteData
+			Node parentNode = head;
+			Node currentNode = head.left;
+			while (currentNode != null && currentNode.value != deleteData) {
+				parentNode = currentNode;
+				currentNode = deleteData < currentNode.value ? currentNode.left : currentNode.right;
+			}
+			if (currentNode == null || currentNode.deleted) {
+				return false;
+			}
+			// Step-2: Lock parent then node, validate nothing changed in between
+			synchronized (parentNode) {
+				synchronized (currentNode) {
+					if (parentNode.removed || currentNode.removed
+							|| (parentNode.left != currentNode && parentNode.right != currentNode)) {
+						continue retry;
+					}
+					if (currentNode.deleted) {
+						return false;
+					}
+					if (currentNode.left != null && currentNode.right != null) {
+						// case-2: node with both child, mark it
+						currentNode.deleted = true;
+					} else {
+						// case-1: node with at most one child, link its child to the parent
+						unlink(parentNode, currentNode);
+					}
+				}
+			}
+			size.decrement();
+			// Step-3: The parent lost a child, unlink it too if it is a routing node with one child left
+			unlinkRouting(parentNode);
+			return true;
+		}
+	}
+
+	// link the only child(or null) of node to parentNode, both locked
+	private static void unlink(Node parentNode, Node node) {
+		Node childNode = node.left != null ? node.left : node.right;
+		if (parentNode.left == node) {
+			parentNode.left = childNode;
+		} else {
+			parentNode.right = childNode;
+		}
+		node.removed = true;
+	}
+
+	/**
+	 * Unlink routingNode if it is marked as deleted and has at most one child, then check its parent the same
+	 * way. Locks are taken top-down(parent then node) like in delete, so the parent is searched again first.
+	 *
+	 * @param routingNode
+	 */
+	private void unlinkRouting(Node routingNode) {
+		retry:
+		while (routingNode != head) {
+			// Step-1: Live node, already unlinked or still routing between two child: nothing to do
+			if (!routingNode.deleted || routingNode.removed || (routingNode.left != null && routingNode.right != null)) {
+				return;
+			}
+			// Step-2: Traverse without lock to its parent, a key is stored in a single node
+			Node parentNode = head;
+			Node currentNode = head.left;
+			while (currentNode != null && currentNode != routingNode) {
+				parentNode = currentNode;
+				currentNode = routingNode.value < currentNode.value ? currentNode.left : currentNode.right;
+			}
+			if (currentNode == null) {
+				// unlinked meanwhile(Step-1 sees removed) or moved out of sight for a moment
+				Thread.onSpinWait();
+				continue retry;
+			}
+			// Step-3: Lock parent then node, validate and unlink as in case-1
+			synchronized (parentNode) {
+				synchronized (routingNode) {
+					if (parentNode.removed || routingNode.removed
+							|| (parentNode.left != routingNode && parentNode.right != routingNode)) {
+						continue retry;
+					}
+					if (!routingNode.deleted || (routingNode.left != null && routingNode.right != null)) {
+						return;
+					}
+					unlink(parentNode, routingNode);
+				}
+			}
+			// Step-4: Now its parent lost a child
+			routingNode = parentNode;
+		}
+	}
+
+	// number of nodes linked in the tree, routing nodes included(no concurrent writers)
+	int nodeCount() {
+		int count = 0;
+		Deque<Node> stack = new ArrayDeque<Node>();
+		if (head.left != null) {
+			stack.push(head.left);
+		}
+		while (!stack.isEmpty()) {
+			Node node = stack.pop();
+			count++;
+			if (node.left != null) {
+				stack.push(node.left);
+			}
+			if (node.right != null) {
+				stack.push(node.right);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * TRAVERSAL: IN-ORDER-TRAVERSAL(LDR), weakly consistent with concurrent writers.
+	 *
+	 * @return
+	 */
+	public List<Integer> inOrderTraversal() {
+		List<Integer> inOrderTraverseVal = new ArrayList<Integer>();
+		Deque<Node> stack = new ArrayDeque<Node>();
+		Node currentNode = head.left;
+		while (currentNode != null || !stack.isEmpty()) {
+			while (currentNode != null) {
+				stack.push(currentNode);
+				currentNode = currentNode.left;
+			}
+			currentNode = stack.pop();
+			if (!currentNode.deleted) {
+				inOrderTraverseVal.add(currentNode.value);
+			}
+			currentNode = currentNode.right;
+		}
+		return inOrderTraverseVal;
+	}
+
+	// runner
+	public static void main(String[] args) throws InterruptedException {
+		ConcurrentBinarySearchTree bst = new ConcurrentBinarySearchTree();
+		int keys = 1 << 16;
+		for (int input = 0; input < keys; input += 2) {
+			bst.add(input);
+		}
+
+		// 90% search, 10% add/delete on every core
+		int threads = Runtime.getRuntime().availableProcessors();
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			workers[t] = new Thread(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < 1_000_000; i++) {
+					int key = random.nextInt(keys);
+					int operation = random.nextInt(100);
+					if (operation < 90) {
+						bst.search(key);
+					} else if (operation < 95) {
+						bst.add(key);
+					} else {
+						bst.delete(key);
+					}
+				}
+			});
+			workers[t].start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		System.out.println("size: " + bst.size() + " traversed: " + bst.inOrderTraversal().size());
+
+		// churn: add keys in random order, then 4 threads(at least) delete their share in random order,
+		// no routing node may stay behind
+		ConcurrentBinarySearchTree churn = new ConcurrentBinarySearchTree();
+		int[] churnKeys = new int[100_000];
+		for (int i = 0; i < churnKeys.length; i++) {
+			churnKeys[i] = i;
+		}
+		shuffle(churnKeys);
+		for (int key : churnKeys) {
+			churn.add(key);
+		}
+		shuffle(churnKeys);
+		int churnThreads = Math.max(4, threads);
+		Thread[] deleters = new Thread[churnThreads];
+		for (int t = 0; t < churnThreads; t++) {
+			int first = t;
+			deleters[t] = new Thread(() -> {
+				for (int i = first; i < churnKeys.length; i += churnThreads) {
+					churn.delete(churnKeys[i]);
+				}
+			});
+			deleters[t].start();
+		}
+		for (Thread worker : deleters) {
+			worker.join();
+		}
+		int nodes = churn.nodeCount();
+		System.out.println("after churn size: " + churn.size() + " nodes: " + nodes);
+		if (churn.size() != 0 || nodes != 0) {
+			throw new IllegalStateException("routing nodes left after deleting every key: " + nodes);
+		}
+	}
+
+	private static void shuffle(int[] values) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = values.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int value = values[i];
+			values[i] = values[j];
+			values[j] = value;
+		}
+	}
+}
@@ -0,0 +1,401 @@
+package tree.bst;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary Search Tree whose nodes live in a memory-mapped file instead of the java heap.
+ *
+ * The file is the tree image, so a tree written by one process reopens instantly in the next one and
+ * searches read the mapped pages directly(no deserialization, no TreeNode object per key).
+ *
+ * File layout(all ints, big endian):
+ *
+ *    -------------------------------------------------------------------------------
+ *   | HEADER: magic | version | root | freeHead | used | size | capacity | reserved |  32 bytes
+ *    -------------------------------------------------------------------------------
+ *   | slot 0: value | left | right |                                                  12 bytes
+ *   | slot 1: value | left | right |
+ *   |  ...                                                                            capacity slots
+ *
+ * Children are slot numbers(NIL = -1), deleted slots are chained into a free list through the left field.
+ * When the file runs out of slots it is extended to twice the capacity and mapped again.
+ * A single mapping is limited to 2GB, about 178 million keys.
+ *
+ * Limitation: java can not unmap a MappedByteBuffer, the old mapping of every growth stays mapped(address
+ * space, not heap) until the GC collects it. Growing from a small capacity piles up log2(capacity) mappings
+ * of the same file, pass the expected capacity to the constructor when it is known.
+ *
+ * @author Prashant Singh
+ *
+ */
+public class MappedBinarySearchTree implements Closeable {
+
+	static final int NIL = -1;
+
+	private static final int MAGIC = 0x42535431; // "BST1"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 32;
+	private static final int NODE_SIZE = 12;
+	private static final int DEFAULT_CAPACITY = 1024;
+
+	// header offsets
+	private static final int ROOT = 8;
+	private static final int FREE_HEAD = 12;
+	private static final int USED = 16;
+	private static final int SIZE = 20;
+	private static final int CAPACITY = 24;
+
+	// node field offsets
+	private static final int VALUE = 0;
+	private static final int LEFT = 4;
+	private static final int RIGHT = 8;
+
+	private final FileChannel channel;
+	private MappedByteBuffer buffer;
+
+	/**
+	 * Open the tree image stored in file, a new empty image is created if the file does not exist.
+	 *
+	 * @param file
+	 * @throws IOException if the file is not a valid BST image(wrong magic or version, truncated)
+	 */
+	public MappedBinarySearchTree(Path file) throws IOException {
+		this(file, DEFAULT_CAPACITY);
+	}
+
+	public MappedBinarySearchTree(Path file, int initialCapacity) throws IOException {
+		boolean exists = Files.exists(file) && Files.size(file) > 0;
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		if (exists) {
+			try {
+				// Step-1: The header and the slots it declares must fit in the file before anything is read
+				long fileSize = channel.size();
+				if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+					throw new IOException("Not a BST image(" + fileSize + " bytes): " + file);
+				}
+				buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+				if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+					throw new IOException("Not a BST image: " + file);
+				}
+				// Step-2: Validate the counters against the file length
+				int capacity = buffer.getInt(CAPACITY);
+				int used = buffer.getInt(USED);
+				int size = buffer.getInt(SIZE);
+				if (capacity < 1 || fileSize(capacity) > fileSize || used < 0 || used > capacity || size < 0
+						|| size > used || !isSlot(buffer.getInt(ROOT), used) || !isSlot(buffer.getInt(FREE_HEAD), used)) {
+					throw new IOException("Corrupt BST image header: " + file);
+				}
+			} catch (IOException e) {
+				channel.close();
+				throw e;
+			}
+		} else {
+			int capacity = Math.max(initialCapacity, 1);
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, VERSION);
+			buffer.putInt(ROOT, NIL);
+			buffer.putInt(FREE_HEAD, NIL);
+			buffer.putInt(USED, 0);
+			buffer.putInt(SIZE, 0);
+			buffer.putInt(CAPACITY, capacity);
+		}
+	}
+
+	// NIL or a slot handed out already
+	private static boolean isSlot(int slot, int used) {
+		return slot >= NIL && slot < used;
+	}
+
+	private static long fileSize(int capacity) {
+		return HEADER_SIZE + (long) capacity * NODE_SIZE;
+	}
+
+	private static int offset(int slot) {
+		return HEADER_SIZE + slot * NODE_SIZE;
+	}
+
+	private int value(int slot) {
+		return buffer.getInt(offset(slot) + VALUE);
+	}
+
+	private int left(int slot) {
+		return buffer.getInt(offset(slot) + LEFT);
+	}
+
+	private int right(int slot) {
+		return buffer.getInt(offset(slot) + RIGHT);
+	}
+
+	private void setLeft(int slot, int child) {
+		buffer.putInt(offset(slot) + LEFT, child);
+	}
+
+	private void setRight(int slot, int child) {
+		buffer.putInt(offset(slot) + RIGHT, child);
+	}
+
+	private int root() {
+		return buffer.getInt(ROOT);
+	}
+
+	public int size() {
+		return buffer.getInt(SIZE);
+	}
+
+	private int allocate(int data) throws IOException {
+		int slot = buffer.getInt(FREE_HEAD);
+		if (slot != NIL) {
+			// reuse a deleted slot
+			buffer.putInt(FREE_HEAD, left(slot));
+		} else {
+			slot = buffer.getInt(USED);
+			int capacity = buffer.getInt(CAPACITY);
+			if (slot == capacity) {
+				// extend the file and map it again, the old mapping is released by the GC only(see the class doc).
+				// CAPACITY is written after the new mapping succeeded, a failed map leaves the header valid
+				long newCapacity = Math.min((long) capacity * 2, (Integer.MAX_VALUE - HEADER_SIZE) / NODE_SIZE);
+				if (newCapacity == capacity) {
+					throw new IOException("BST image is full");
+				}
+				buffer.force();
+				buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize((int) newCapacity));
+				buffer.putInt(CAPACITY, (int) newCapacity);
+			}
+			buffer.putInt(USED, slot + 1);
+		}
+		int nodeOffset = offset(slot);
+		buffer.putInt(nodeOffset + VALUE, data);
+		buffer.putInt(nodeOffset + LEFT, NIL);
+		buffer.putInt(nodeOffset + RIGHT, NIL);
+		buffer.putInt(SIZE, size() + 1);
+		return slot;
+	}
+
+	private void release(int slot) {
+		setLeft(slot, buffer.getInt(FREE_HEAD));
+		buffer.putInt(FREE_HEAD, slot);
+		buffer.putInt(SIZE, size() - 1);
+	}
+
+	/**
+	 * Insert data into BST, duplicates are ignored.
+	 *
+	 * @param data
+	 * @return true if the data was inserted
+	 * @throws IOException if the file can not be extended
+	 */
+	public boolean add(int data) throws IOException {
+		// Step-1: Base condition, when value is insert from root
+		int parentNode = root();
+		if (parentNode == NIL) {
+			buffer.putInt(ROOT, allocate(data));
+			return true;
+		}
+		// Step-2: Traverse to the correct parent of the new node
+		while (true) {
+			int parentValue = value(parentNode);
+			if (data == parentValue) {
+				// value already exist
+				return false;
+			}
+			int childNode = data < parentValue ? left(parentNode) : right(parentNode);
+			if (childNode == NIL) {
+				break;
+			}
+			parentNode = childNode;
+		}
+		// Step-3: Link the new slot to left or right of the parent
+		int newNode = allocate(data);
+		if (data < value(parentNode)) {
+			setLeft(parentNode, newNode);
+		} else {
+			setRight(parentNode, newNode);
+		}
+		return true;
+	}
+
+	/**
+	 * Search data directly against the mapped pages.
+	 *
+	 * @param searchData
+	 * @return slot of the node holding searchData, or NIL if not found
+	 */
+	public int search(int searchData) {
+		int currentNode = root();
+		while (currentNode != NIL) {
+			int nodeOffset = offset(currentNode);
+			int currentValue = buffer.getInt(nodeOffset + VALUE);
+			if (searchData == currentValue) {
+				return currentNode;
+			}
+			currentNode = buffer.getInt(nodeOffset + (searchData < currentValue ? LEFT : RIGHT));
+		}
+		return NIL;
+	}
+
+	public boolean contains(int searchData) {
+		return search(searchData) != NIL;
+	}
+
+	/**
+	 * Delete data from BST in a single descent.
+	 *
+	 * @param deleteData
+	 * @return true if the data was found and deleted
+	 */
+	public boolean delete(int deleteData) {
+		// Step-1: Search the node which matched the deleteData and set it's parentNode
+		int currentNode = root();
+		int parentNode = NIL;
+		while (currentNode != NIL && value(currentNode) != deleteData) {
+			parentNode = currentNode;
+			currentNode = deleteData < value(currentNode) ? left(currentNode) : right(currentNode);
+		}
+		// Step-2: Check if the deleteData is not found in BST
+		if (currentNode == NIL) {
+			return false;
+		}
+		// Step-3: Node with both child, copy the successor(minNode of rightChild) value and delete the successor
+		if (left(currentNode) != NIL && right(currentNode) != NIL) {
+			int successorParent = currentNode;
+			int successor = right(currentNode);
+			while (left(successor) != NIL) {
+				successorParent = successor;
+				successor = left(successor);
+			}
+			buffer.putInt(offset(currentNode) + VALUE, value(successor));
+			parentNode = successorParent;
+			currentNode = successor;
+		}
+		// Step-4: currentNode has at most one child, link the child to the parentNode
+		int childNode = left(currentNode) != NIL ? left(currentNode) : right(currentNode);
+		if (parentNode == NIL) {
+			buffer.putInt(ROOT, childNode);
+		} else if (left(parentNode) == currentNode) {
+			setLeft(parentNode, childNode);
+		} else {
+			setRight(parentNode, childNode);
+		}
+		release(currentNode);
+		return true;
+	}
+
+	/**
+	 * TRAVERSAL: IN-ORDER-TRAVERSAL(LDR), iterative using an int stack of slots.
+	 *
+	 * @return
+	 */
+	public List<Integer> inOrderTraversal() {
+		List<Integer> inOrderTraverseVal = new ArrayList<Integer>(size());
+		int[] stack = new int[16];
+		int top = 0;
+		int currentNode = root();
+		while (currentNode != NIL || top > 0) {
+			while (currentNode != NIL) {
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, top * 2);
+				}
+				stack[top++] = currentNode;
+				currentNode = left(currentNode);
+			}
+			currentNode = stack[--top];
+			inOrderTraverseVal.add(value(currentNode));
+			currentNode = right(currentNode);
+		}
+		return inOrderTraverseVal;
+	}
+
+	/**
+	 * Flush the modified pages to the file.
+	 */
+	public void force() {
+		buffer.force();
+	}
+
+	@Override
+	public void close() throws IOException {
+		force();
+		channel.close();
+	}
+
+	// runner, args[0] is an optional path for the image, it must not exist yet and is kept
+	public static void main(String[] args) throws IOException {
+		Path file;
+		if (args.length > 0) {
+			file = Paths.get(args[0]);
+			if (Files.exists(file)) {
+				throw new IOException("Refusing to overwrite an existing file: " + file);
+			}
+		} else {
+			// createTempFile creates an empty file, which is initialized as a new image
+			file = Files.createTempFile("bst", ".img");
+			file.toFile().deleteOnExit();
+		}
+
+		// first run: build the image
+		try (MappedBinarySearchTree bst = new MappedBinarySearchTree(file)) {
+			int inputs[] = { 50, 22, 3, 6, 44, 9 };
+			for (int input : inputs) {
+				bst.add(input);
+			}
+			bst.delete(22);
+		}
+
+		// next run: reopen the image, no rebuild
+		try (MappedBinarySearchTree bst = new MappedBinarySearchTree(file)) {
+			System.out.println(bst.inOrderTraversal() + " size: " + bst.size());
+			System.out.println(bst.contains(44) + " " + bst.contains(22));
+		}
+
+		// growth: start with 4 slots, insert past them several times, then reopen and compare
+		Path grown = Files.createTempFile("bst", ".img");
+		try {
+			int[] keys = new int[1000];
+			for (int i = 0; i < keys.length; i++) {
+				keys[i] = (i * 7919) % keys.length;
+			}
+			try (MappedBinarySearchTree bst = new MappedBinarySearchTree(grown, 4)) {
+				for (int key : keys) {
+					bst.add(key);
+				}
+			}
+			try (MappedBinarySearchTree bst = new MappedBinarySearchTree(grown)) {
+				List<Integer> inOrder = bst.inOrderTraversal();
+				for (int i = 0; i < keys.length; i++) {
+					if (inOrder.get(i) != i) {
+						throw new IllegalStateException("reopened image lost key " + i + ": " + inOrder.get(i));
+					}
+				}
+				if (bst.size() != keys.length || inOrder.size() != keys.length) {
+					throw new IllegalStateException("reopened image has " + bst.size() + " keys, expected " + keys.length);
+				}
+				System.out.println("grown to " + Files.size(grown) + " bytes, reopened with " + bst.size() + " keys");
+			}
+		} finally {
+			Files.delete(grown);
+		}
+
+		// a truncated image is rejected
+		Path truncated = Files.createTempFile("bst", ".img");
+		try {
+			Files.write(truncated, Arrays.copyOf(Files.readAllBytes(file), HEADER_SIZE - 4));
+			new MappedBinarySearchTree(truncated).close();
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+		} finally {
+			Files.delete(truncated);
+		}
+	}
+}
@@ -0,0 +1,254 @@
+package tree.bst;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Persistent(immutable) Binary Search Tree using path copying.
+ *
+ * Nodes are never modified. An insert or delete copies only the nodes on the path from the root to the
+ * changed node and shares every other subtree with the previous version:
+ *
+ *      version-1             version-2 = add(4)
+ *
+ *         5                        5'          <- copied
+ *        / \                      / \
+ *       3   8                    3'  8         <- 3 copied, 8 shared
+ *      /                        / \
+ *     1                        1   4           <- 1 shared, 4 new
+ *
+ * The tree is kept balanced(AVL rotations on the copied path), so every update copies O(log n) nodes.
+ * A snapshot is just a read of the current root: it never changes afterwards, readers never block writers
+ * and writers publish a new version with a single compare-and-set of the root.
+ *
+ * @author Prashant Singh
+ *
+ */
+public class PersistentBinarySearchTree {
+
+	public static final class Node {
+		final int value;
+		final Node left;
+		final Node right;
+		final int height;
+		final int size;
+
+		Node(int value, Node left, Node right) {
+			this.value = value;
+			this.left = left;
+			this.right = right;
+			this.height = Math.max(height(left), height(right)) + 1;
+			this.size = size(left) + size(right) + 1;
+		}
+
+		public int value() {
+			return value;
+		}
+	}
+
+	private final AtomicReference<Node> root = new AtomicReference<Node>();
+
+	/**
+	 * Current version of the tree, it stays valid(and unchanged) forever.
+	 *
+	 * @return root of the current version
+	 */
+	public Node snapshot() {
+		return root.get();
+	}
+
+	static int height(Node node) {
+		return node == null ? 0 : node.height;
+	}
+
+	public static int size(Node node) {
+		return node == null ? 0 : node.size;
+	}
+
+	/**
+	 * Insert data and publish the new version.
+	 *
+	 * @param value
+	 * @return true if the value was inserted, false if it already exist
+	 */
+	public boolean add(int value) {
+		while (true) {
+			Node current = root.get();
+			Node updated = insert(current, value);
+			if (updated == current) {
+				return false;
+			}
+			// another writer published a version meanwhile, redo the update on top of it
+			if (root.compareAndSet(current, updated)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Delete data and publish the new version.
+	 *
+	 * @param value
+	 * @return true if the value was found and deleted
+	 */
+	public boolean delete(int value) {
+		while (true) {
+			Node current = root.get();
+			Node updated = delete(current, value);
+			if (updated == current) {
+				return false;
+			}
+			if (root.compareAndSet(current, updated)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Version of root with value inserted, root itself is not modified.
+	 *
+	 * @param root
+	 * @param value
+	 * @return new root, or root if the value already exist
+	 */
+	public static Node insert(Node root, int value) {
+		// Step-1: Base condition, the new leaf
+		if (root == null) {
+			return new Node(value, null, null);
+		}
+		// Step-2: Insert into the subtree, copy this node only if the subtree changed
+		if (value < root.value) {
+			Node left = insert(root.left, value);
+			return left == root.left ? root : balance(root.value, left, root.right);
+		}
+		if (value > root.value) {
+			Node right = insert(root.right, value);
+			return right == root.right ? root : balance(root.value, root.left, right);
+		}
+		// value already exist
+		return root;
+	}
+
+	/**
+	 * Version of root with value deleted, root itself is not modified.
+	 *
+	 * @param root
+	 * @param value
+	 * @return new root, or root if the value was not found
+	 */
+	public static Node delete(Node root, int value) {
+		// Step-1: Base condition value is not found
+		if (root == null) {
+			return null;
+		}
+		// Step-2: Delete from the subtree, copy this node only if the subtree changed
+		if (value < root.value) {
+			Node left = delete(root.left, value);
+			return left == root.left ? root : balance(root.value, left, root.right);
+		}
+		if (value > root.value) {
+			Node right = delete(root.right, value);
+			return right == root.right ? root : balance(root.value, root.left, right);
+		}
+		// Step-3: Node with at most one child is replaced by the child
+		if (root.left == null) {
+			return root.right;
+		}
+		if (root.right == null) {
+			return root.left;
+		}
+		// Step-4: Node with both child is replaced by a copy holding its successor(minNode of rightChild)
+		Node minNode = root.right;
+		while (minNode.left != null) {
+			minNode = minNode.left;
+		}
+		return balance(minNode.value, root.left, deleteMin(root.right));
+	}
+
+	private static Node deleteMin(Node node) {
+		if (node.left == null) {
+			return node.right;
+		}
+		return balance(node.value, deleteMin(node.left), node.right);
+	}
+
+	// new node of value over left and right, rotated if it is out of balance
+	private static Node balance(int value, Node left, Node right) {
+		int balanceFactor = height(left) - height(right);
+		// case-1: left heavy
+		if (balanceFactor > 1) {
+			if (height(left.left) < height(left.right)) {
+				left = rotateLeft(left.value, left.left, left.right);
+			}
+			return rotateRight(value, left, right);
+		}
+		// case-2: right heavy
+		if (balanceFactor < -1) {
+			if (height(right.right) < height(right.left)) {
+				right = rotateRight(right.value, right.left, right.right);
+			}
+			return rotateLeft(value, left, right);
+		}
+		return new Node(value, left, right);
+	}
+
+	private static Node rotateRight(int value, Node left, Node right) {
+		return new Node(left.value, left.left, new Node(value, left.right, right));
+	}
+
+	private static Node rotateLeft(int value, Node left, Node right) {
+		return new Node(right.value, new Node(value, left, right.left), right.right);
+	}
+
+	public static Node searchIterative(Node root, int searchData) {
+		Node currentNode = root;
+		while (currentNode != null) {
+			if (searchData == currentNode.value) {
+				return currentNode;
+			}
+			currentNode = searchData < currentNode.value ? currentNode.left : currentNode.right;
+		}
+		return null;
+	}
+
+	/**
+	 * TRAVERSAL: IN-ORDER-TRAVERSAL(LDR) of a snapshot, the stack never gets deeper than the tree height.
+	 *
+	 * @param root
+	 * @return
+	 */
+	public static List<Integer> inOrderTraversal(Node root) {
+		List<Integer> inOrderTraverseVal = new ArrayList<Integer>(size(root));
+		Node[] stack = new Node[Math.max(height(root), 1)];
+		int top = 0;
+		Node currentNode = root;
+		while (currentNode != null || top > 0) {
+			while (currentNode != null) {
+				stack[top++] = currentNode;
+				currentNode = currentNode.left;
+			}
+			currentNode = stack[--top];
+			inOrderTraverseVal.add(currentNode.value);
+			currentNode = currentNode.right;
+		}
+		return inOrderTraverseVal;
+	}
+
+	// runner
+	public static void main(String[] args) {
+		PersistentBinarySearchTree bst = new PersistentBinarySearchTree();
+		int inputs[] = { 50, 22, 3, 6, 44, 9 };
+		for (int input : inputs) {
+			bst.add(input);
+		}
+
+		// the report keeps reading its snapshot while the writer goes on
+		Node report = bst.snapshot();
+		bst.delete(50);
+		bst.add(100);
+		System.out.println("snapshot: " + inOrderTraversal(report));
+		System.out.println("current:  " + inOrderTraversal(bst.snapshot()));
+		System.out.println(searchIterative(report, 50) != null);
+	}
+}
@@ -0,0 +1,226 @@
+package tree.bst;
+
+import tree.TreeMetrics;
+
+/**
+ * A Splay Tree is a self-adjusting Binary Search Tree: every searched node is rotated(splayed) up to the
+ * root, so the keys which are accessed often stay close to the root and the amortized cost of a search
+ * follows the working set instead of the total size of the tree.
+ *
+ * Splay steps(x is the searched node, p its parent, g its grandparent):
+ *
+ *   zig(p is root):         zig-zig(x, p same side):        zig-zag(x, p different side):
+ *
+ *       p          x               g              x              g                x
+ *      /    ==>     \             /                \            /               /   \
+ *     x              p           p      ==>         p          p      ==>      p     g
+ *                               /                    \          \
+ *                              x                      g          x
+ *
+ * Semi-splay: with a splayDepthThreshold only the nodes found deeper than the threshold are splayed,
+ * hot keys near the root are not rotated again on every hit.
+ *
+ * Every operation on the root adjusts the tree: a search splays the found node, an insert splays the new
+ * node(or the node which already holds the value) and a delete splays the parent of the unlinked node:
+ *
+ *   delete(4):       4        successor 5 moves up,     5      splay 6(parent of       6
+ *                  /   \      its node is unlinked     /  \     the unlinked node)    / \
+ *                 2     6             ==>             2    6           ==>           5   7
+ *                      / \                                  \                       /
+ *                     5   7                                  7                     2
+ *
+ * The deletes unlink the node like BinarySearchTree.deleteNodeIterative, deleteNodeRecursive promotes the
+ * predecessor like the BinarySearchTree one but without recursion.
+ *
+ * @author Prashant Singh
+ *
+ */
+public class SplayTree extends BinarySearchTree {
+
+	// nodes found at depth <= threshold are not splayed, 0 splays on every access
+	private final int splayDepthThreshold;
+
+	public SplayTree() {
+		this(0);
+	}
+
+	public SplayTree(int splayDepthThreshold) {
+		this.splayDepthThreshold = splayDepthThreshold;
+	}
+
+	/**
+	 * Search data and splay the found node to the root.
+	 *
+	 * Only a search starting at the root of this tree adjusts it, searching a subtree does a plain search.
+	 *
+	 * @param root
+	 * @param searchData
+	 * @return the found node, or null
+	 */
+	@Override
+	public TreeNode searchIterative(TreeNode root, int searchData) {
+		if (root != this.root) {
+			return super.searchIterative(root, searchData);
+		}
+		long start = startMetrics();
+		// Step-1: Search and remember the path
+		int depth = 0;
+		TreeNode currentNode = root;
+		while (currentNode != null && currentNode.value != searchData) {
+			pushPath(depth++, currentNode);
+			currentNode = searchData < currentNode.value ? currentNode.left : currentNode.right;
+		}
+		recordMetrics(TreeMetrics.SEARCH, start, currentNode != null ? depth + 1 : depth, currentNode != null);
+		// Step-2: Splay the found node if it is deeper than the threshold
+		if (currentNode != null && depth > splayDepthThreshold) {
+			splay(currentNode, depth);
+		}
+		clearPath(depth);
+		return currentNode;
+	}
+
+	/**
+	 * Insert data and splay the new node(or the node which already holds it) to the root.
+	 *
+	 * @param value
+	 */
+	@Override
+	public void addIterative(int value) {
+		long start = startMetrics();
+		// Step-1: Search the place of insertion and remember the path
+		int depth = 0;
+		TreeNode parentNode = null;
+		TreeNode currentNode = root;
+		while (currentNode != null && currentNode.value != value) {
+			pushPath(depth++, currentNode);
+			parentNode = currentNode;
+			currentNode = value < currentNode.value ? currentNode.left : currentNode.right;
+		}
+		boolean found = currentNode != null;
+		recordMetrics(TreeMetrics.ADD, start, found ? depth + 1 : depth, found);
+		// Step-2: Link the new leaf below parentNode
+		if (!found) {
+			currentNode = new TreeNode(value);
+			if (parentNode == null) {
+				root = currentNode;
+			} else if (value < parentNode.value) {
+				parentNode.left = currentNode;
+			} else {
+				parentNode.right = currentNode;
+			}
+		}
+		// Step-3: Splay the node if it is deeper than the threshold, the rotations refresh the path, a new leaf
+		// which is not splayed refreshes it bottom-up
+		if (depth > splayDepthThreshold) {
+			splay(currentNode, depth);
+			clearPath(depth);
+		} else if (!found) {
+			updatePath(depth);
+		} else {
+			clearPath(depth);
+		}
+	}
+
+	// same as addIterative, the insert splays
+	@Override
+	public void add(int value) {
+		addIterative(value);
+	}
+
+	/**
+	 * Delete data and splay the parent of the unlinked node, a delete in a subtree does a plain delete.
+	 * The node with both child gets the value of its predecessor, as in BinarySearchTree.deleteNodeRecursive,
+	 * without recursion.
+	 *
+	 * @param root
+	 * @param deleteData
+	 * @return root of the tree
+	 */
+	@Override
+	public TreeNode deleteNodeRecursive(TreeNode root, int deleteData) {
+		if (root != this.root) {
+			return super.deleteNodeRecursive(root, deleteData);
+		}
+		return deleteNodeIterative(root, deleteData, true);
+	}
+
+	// splay the parent of the node deleteNodeIterative unlinked(the last node of the path) if the delete started
+	// at the root and the parent is deeper than the threshold, the rotations refresh the path
+	@Override
+	TreeNode unlinked(TreeNode root, int pathLength) {
+		int parentDepth = pathLength - 1;
+		if (parentDepth <= splayDepthThreshold || path[0] != this.root) {
+			return super.unlinked(root, pathLength);
+		}
+		splay(path[parentDepth], parentDepth);
+		clearPath(pathLength);
+		return this.root;
+	}
+
+	// rotate node up to the root, path[0..depth-1] are its ancestors
+	private void splay(TreeNode node, int depth) {
+		while (depth > 0) {
+			TreeNode parentNode = path[depth - 1];
+			if (depth == 1) {
+				// zig
+				rotateUp(node, parentNode);
+				break;
+			}
+			TreeNode grandParentNode = path[depth - 2];
+			if ((parentNode.left == node) == (grandParentNode.left == parentNode)) {
+				// zig-zig: rotate the parent first, then the node
+				rotateUp(parentNode, grandParentNode);
+				rotateUp(node, parentNode);
+			} else {
+				// zig-zag: rotate the node twice, it replaces the parent under the grandparent in between
+				rotateUp(node, parentNode);
+				if (grandParentNode.left == parentNode) {
+					grandParentNode.left = node;
+				} else {
+					grandParentNode.right = node;
+				}
+				rotateUp(node, grandParentNode);
+			}
+			depth -= 2;
+			// link the node to where the grandparent was
+			if (depth > 0) {
+				TreeNode ancestor = path[depth - 1];
+				if (ancestor.left == grandParentNode) {
+					ancestor.left = node;
+				} else {
+					ancestor.right = node;
+				}
+			}
+		}
+		root = node;
+	}
+
+	// single rotation of node over its parent, the caller re-links node to the grandparent
+	private void rotateUp(TreeNode node, TreeNode parentNode) {
+		if (parentNode.left == node) {
+			parentNode.left = node.right;
+			node.right = parentNode;
+		} else {
+			parentNode.right = node.left;
+			node.left = parentNode;
+		}
+		updateNode(parentNode);
+		updateNode(node);
+	}
+
+	// runner: the Zipfian lookups of the plain BST and the splay trees are compared in SplayTreeBenchmark
+	public static void main(String[] args) {
+		SplayTree tree = new SplayTree();
+		// every insert splays the new key to the root, ascending inserts build a left leaning chain
+		for (int value = 1; value <= 7; value++) {
+			tree.addIterative(value);
+		}
+		System.out.println(tree.preOrderTraversal(tree.root));
+		// the search splays 1 up, the path to it is roughly halved
+		tree.searchIterative(tree.root, 1);
+		System.out.println(tree.preOrderTraversal(tree.root) + " height: " + tree.height(tree.root));
+		// the parent of the unlinked node comes up
+		tree.root = tree.deleteNodeIterative(tree.root, 4);
+		System.out.println(tree.preOrderTraversal(tree.root) + " size: " + tree.size(tree.root));
+	}
+}